@@ -0,0 +1,90 @@
+package org.ms.mcp.workflows.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.ms.mcp.workflows.util.AdoFixtures;
+import org.ms.mcp.workflows.util.AdoResponseParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ensamblado del resultado de un workflow de 10, 1k y 20k work items:
+ * getters agregados de EpicWorkflowResult (los que usa getSummary y la serialización)
+ * y paso del resultado a JsonNode con Jackson, como hace la herramienta MCP
+ * Reparto: una épica cada 50 items (mínimo 1), un 20% de historias y el resto tareas
+ * Ejecutar: gradle jmh -PjmhIncludes=EpicWorkflowResultBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EpicWorkflowResultBenchmark {
+
+    @Param({"10", "1000", "20000"})
+    private int size;
+
+    private EpicWorkflowResult result;
+
+    @Setup
+    public void setUp() {
+        AdoResponseParser parser = new AdoResponseParser();
+        int epicCount = Math.max(1, size / 50);
+        int storyCount = Math.max(1, size / 5);
+        List<EpicInfo> epics = parser.parseEpics(AdoFixtures.workItemsBatch(epicCount, "Epic"));
+        List<UserStoryInfo> stories = parser.parseUserStories(AdoFixtures.workItemsBatch(storyCount, "Issue", "User Story"));
+        List<TaskInfo> tasks = parser.parseTasks(AdoFixtures.workItemsBatch(Math.max(1, size - epicCount - storyCount), "Task"));
+
+        List<EpicWorkflowResult.EpicData> epicData = new ArrayList<>();
+        for (int i = 0; i < epics.size(); i++) {
+            epicData.add(EpicWorkflowResult.EpicData.builder()
+                    .epic(epics.get(i))
+                    .userStories(new ArrayList<>())
+                    .tasks(new ArrayList<>())
+                    .build());
+        }
+        for (int i = 0; i < stories.size(); i++) {
+            epicData.get(i % epicData.size()).getUserStories().add(stories.get(i));
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            epicData.get(i % epicData.size()).getTasks().add(tasks.get(i));
+        }
+
+        result = EpicWorkflowResult.builder()
+                .searchType("BY_PARTIAL_NAME")
+                .searchValue("plataforma")
+                .epics(epicData)
+                .metadata(EpicWorkflowResult.WorkflowMetadata.builder()
+                        .executionTimeMs(120L)
+                        .apiCallsCount(4)
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public void aggregateGetters(Blackhole blackhole) {
+        blackhole.consume(result.getTotalEpics());
+        blackhole.consume(result.getTotalUserStories());
+        blackhole.consume(result.getTotalTasks());
+        blackhole.consume(result.getCompletedUserStories());
+        blackhole.consume(result.getCompletedTasks());
+    }
+
+    @Benchmark
+    public String summary() {
+        return result.getSummary();
+    }
+
+    @Benchmark
+    public JsonNode valueToTree() {
+        return AdoFixtures.MAPPER.valueToTree(result);
+    }
+}
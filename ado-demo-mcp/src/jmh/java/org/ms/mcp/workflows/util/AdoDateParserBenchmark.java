@@ -0,0 +1,63 @@
+package org.ms.mcp.workflows.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parseo de las fechas de una respuesta de 10k work items (4 fechas por item, formas reales de ADO):
+ * camino rápido de AdoDateParser frente a la cadena de DateTimeFormatter
+ * Resultado en ns por work item
+ * Ejecutar: gradle jmh -PjmhIncludes=AdoDateParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AdoDateParserBenchmark {
+
+    private static final int ITEMS = 10_000;
+    private static final int DATES_PER_ITEM = 4;
+
+    private String[] dates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dates = new String[ITEMS * DATES_PER_ITEM];
+        for (int i = 0; i < dates.length; i++) {
+            String base = String.format("2024-%02d-%02dT%02d:%02d:%02d", 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            // ADO devuelve milisegundos con Z en la mayoría de campos y a veces sin fracción
+            dates[i] = switch (i % DATES_PER_ITEM) {
+                case 0, 1 -> base + "." + String.format("%03d", random.nextInt(1000)) + "Z";
+                case 2 -> base + "Z";
+                default -> base + "." + String.format("%02d", random.nextInt(100)) + "Z";
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void fastPath(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(AdoDateParser.parse(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void formatterChain(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(AdoDateParser.parseWithFormatters(date));
+        }
+    }
+}
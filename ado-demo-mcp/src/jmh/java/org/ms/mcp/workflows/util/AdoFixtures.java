@@ -0,0 +1,91 @@
+package org.ms.mcp.workflows.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fixtures de respuestas de ADO para los benchmarks
+ * Parten de respuestas grabadas (fixtures/*-sample.json) y se escalan al tamaño pedido
+ * replicando sus work items con IDs nuevos, de modo que la forma de los campos es la real
+ */
+public final class AdoFixtures {
+
+    /** ObjectMapper con la configuración de fechas de Spring Boot (ISO-8601, no timestamps) */
+    public static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static final long FIRST_ID = 100_000;
+
+    private static final JsonNode WORK_ITEMS_SAMPLE = load("fixtures/workitemsbatch-sample.json");
+    private static final JsonNode WIQL_SAMPLE = load("fixtures/wiql-sample.json");
+
+    private AdoFixtures() {
+    }
+
+    /**
+     * Respuesta de workitemsbatch con size work items de los tipos indicados (todos si no se indica ninguno)
+     */
+    public static ObjectNode workItemsBatch(int size, String... types) {
+        Set<String> wanted = Set.of(types);
+        List<JsonNode> samples = new ArrayList<>();
+        for (JsonNode item : WORK_ITEMS_SAMPLE.get("value")) {
+            if (wanted.isEmpty() || wanted.contains(item.get("fields").get("System.WorkItemType").asText())) {
+                samples.add(item);
+            }
+        }
+
+        ObjectNode response = MAPPER.createObjectNode();
+        response.put("count", size);
+        ArrayNode values = response.putArray("value");
+        for (int i = 0; i < size; i++) {
+            ObjectNode item = (ObjectNode) samples.get(i % samples.size()).deepCopy();
+            long id = FIRST_ID + i;
+            ObjectNode fields = (ObjectNode) item.get("fields");
+            item.put("id", id);
+            item.put("url", item.get("url").asText().replaceAll("/\\d+$", "/" + id));
+            fields.put("System.Id", id);
+            fields.put("System.Title", fields.get("System.Title").asText() + " #" + i);
+            values.add(item);
+        }
+        return response;
+    }
+
+    /**
+     * Respuesta WIQL plana con size IDs
+     */
+    public static ObjectNode wiql(int size) {
+        ObjectNode response = WIQL_SAMPLE.deepCopy();
+        String url = response.get("workItems").get(0).get("url").asText();
+        ArrayNode workItems = response.putArray("workItems");
+        for (int i = 0; i < size; i++) {
+            long id = FIRST_ID + i;
+            workItems.addObject()
+                    .put("id", id)
+                    .put("url", url.replaceAll("/\\d+$", "/" + id));
+        }
+        return response;
+    }
+
+    private static JsonNode load(String resource) {
+        try (InputStream input = AdoFixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("Fixture not found: " + resource);
+            }
+            return MAPPER.readTree(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
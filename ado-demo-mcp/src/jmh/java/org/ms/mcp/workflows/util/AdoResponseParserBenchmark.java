@@ -0,0 +1,67 @@
+package org.ms.mcp.workflows.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.ms.mcp.workflows.dto.EpicInfo;
+import org.ms.mcp.workflows.dto.TaskInfo;
+import org.ms.mcp.workflows.dto.UserStoryInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parseo de respuestas de ADO ya leídas a JsonNode, con respuestas de 10, 1k y 20k work items
+ * Resultado en respuestas parseadas por segundo; con -prof gc (activo en build.gradle) también
+ * la asignación por operación
+ * Ejecutar: gradle jmh -PjmhIncludes=AdoResponseParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AdoResponseParserBenchmark {
+
+    @Param({"10", "1000", "20000"})
+    private int size;
+
+    private AdoResponseParser parser;
+    private JsonNode wiql;
+    private JsonNode epics;
+    private JsonNode userStories;
+    private JsonNode tasks;
+
+    @Setup
+    public void setUp() {
+        parser = new AdoResponseParser();
+        wiql = AdoFixtures.wiql(size);
+        epics = AdoFixtures.workItemsBatch(size, "Epic");
+        userStories = AdoFixtures.workItemsBatch(size, "Issue", "User Story");
+        tasks = AdoFixtures.workItemsBatch(size, "Task");
+    }
+
+    @Benchmark
+    public List<Long> extractWorkItemIds() {
+        return parser.extractWorkItemIds(wiql);
+    }
+
+    @Benchmark
+    public List<EpicInfo> parseEpics() {
+        return parser.parseEpics(epics);
+    }
+
+    @Benchmark
+    public List<UserStoryInfo> parseUserStories() {
+        return parser.parseUserStories(userStories);
+    }
+
+    @Benchmark
+    public List<TaskInfo> parseTasks() {
+        return parser.parseTasks(tasks);
+    }
+}
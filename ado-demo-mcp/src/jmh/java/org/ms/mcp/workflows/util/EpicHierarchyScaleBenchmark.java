@@ -0,0 +1,94 @@
+package org.ms.mcp.workflows.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.simulation.SimulatedProject;
+import org.ms.mcp.simulation.SyntheticAdoResponses;
+import org.ms.mcp.simulation.SyntheticWorkItemGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Una épica a escala (hasta 5.000 historias y 50.000 tareas) generada con SyntheticWorkItemGenerator,
+ * por el mismo camino que el cliente: links del WIQL recursivo y detalle en lotes de 200 de workitemsbatch
+ * Resultado en milisegundos por épica completa; con -prof gc también la asignación por épica
+ * Ejecutar: gradle jmh -PjmhIncludes=EpicHierarchyScaleBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EpicHierarchyScaleBenchmark {
+
+    private static final int TASKS_PER_STORY = 10;
+    private static final int BATCH_SIZE = 200;
+
+    @Param({"500", "5000"})
+    private int stories;
+
+    private AdoResponseParser parser;
+    private WorkItemStreamDecoder decoder;
+    private DataBufferFactory bufferFactory;
+    private JsonNode links;
+    private List<JsonNode> batches;
+    private List<byte[]> batchBodies;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        parser = new AdoResponseParser();
+        decoder = new WorkItemStreamDecoder(AdoFixtures.MAPPER, new AdoConfiguration(), new SimpleMeterRegistry());
+        bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+        SimulatedProject project = SyntheticWorkItemGenerator.singleEpic(stories, TASKS_PER_STORY);
+        long epicId = project.epicIds().get(0);
+        links = SyntheticAdoResponses.wiqlLinks(project, List.of(epicId), Set.of());
+        batches = new ArrayList<>(SyntheticAdoResponses.workItemsBatches(project, project.descendants(epicId),
+                WorkItemProjection.HIERARCHY.getFields(), BATCH_SIZE));
+        batchBodies = new ArrayList<>();
+        for (JsonNode batch : batches) {
+            batchBodies.add(AdoFixtures.MAPPER.writeValueAsBytes(batch));
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Long> extractHierarchyLinks() {
+        return parser.extractHierarchyLinks(links);
+    }
+
+    @Benchmark
+    public int parseBatches() {
+        int parsed = 0;
+        for (JsonNode batch : batches) {
+            parsed += parser.parseWorkItems(batch).size();
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public long decodeAndParseBatches() {
+        long parsed = 0;
+        for (byte[] body : batchBodies) {
+            parsed += decoder.decodeArray(Flux.just(bufferFactory.wrap(body)), "value", new ParseClock())
+                    .map(parser::parseWorkItem)
+                    .count()
+                    .block();
+        }
+        return parsed;
+    }
+}
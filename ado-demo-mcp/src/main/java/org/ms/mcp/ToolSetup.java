@@ -1,25 +1,28 @@
 package org.ms.mcp;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.tools.AsyncToolSpecifications;
 import org.ms.mcp.tools.ReleaseNoteTools;
 import org.ms.mcp.tools.UserStoryTools;
-import org.springframework.ai.support.ToolCallbacks;
-import org.springframework.ai.tool.ToolCallback;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Configuration
 public class ToolSetup {
     @Bean
-    public List<ToolCallback> tools(
+    public List<McpServerFeatures.AsyncToolSpecification> tools(
             ReleaseNoteTools releaseNoteService,
-            UserStoryTools codeReviewService
+            UserStoryTools codeReviewService,
+            ObjectMapper objectMapper,
+            AdoConfiguration config,
+            MeterRegistry meterRegistry
     ) {
-        List<Object> toolCallbacks = new ArrayList<>();
-        toolCallbacks.add(releaseNoteService);
-        toolCallbacks.add(codeReviewService);
-        return List.of(ToolCallbacks.from(toolCallbacks.toArray()));
+        return AsyncToolSpecifications.from(objectMapper, config.getTools().getDeadline(), meterRegistry,
+                releaseNoteService, codeReviewService);
     }
 }
@@ -3,6 +3,9 @@ package org.ms.mcp.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Data
 @Configuration
@@ -13,17 +16,30 @@ public class AdoConfiguration {
     private String project;
     private String patToken;
     private Api api = new Api();
+    private Cache cache = new Cache();
+    private Hierarchy hierarchy = new Hierarchy();
+    private Sync sync = new Sync();
+    private TitleIndex titleIndex = new TitleIndex();
+    private Http http = new Http();
+    private Scheduler scheduler = new Scheduler();
+    private Retry retry = new Retry();
+    private Hedge hedge = new Hedge();
+    private Tools tools = new Tools();
+    private Traffic traffic = new Traffic();
     
     @Data
     public static class Api {
         private String baseUrl = "/_apis";
         private Versions versions = new Versions();
         private Endpoints endpoints = new Endpoints();
+        private Batch batch = new Batch();
+        private Memory memory = new Memory();
         
         @Data
         public static class Versions {
             private String wiql = "7.1-preview.2";
             private String workItems = "7.1-preview.3";
+            private String workItemsBatch = "7.1-preview.1";
             private String git = "7.1-preview.1";
             private String project = "7.1-preview.4";
         }
@@ -32,9 +48,171 @@ public class AdoConfiguration {
         public static class Endpoints {
             private String wiql = "/wit/wiql";
             private String workItems = "/wit/workitems";
+            private String workItemsBatch = "/wit/workitemsbatch";
             private String projects = "/projects";
             private String repositories = "/git/repositories";
         }
+        
+        /**
+         * Parámetros del fetch por lotes de work items (workitemsbatch)
+         * Azure DevOps acepta como máximo 200 IDs por llamada
+         */
+        @Data
+        public static class Batch {
+            private int chunkSize = 200;
+            private int concurrency = 4;
+        }
+        
+        /**
+         * Presupuesto de memoria por respuesta: las respuestas de ADO se decodifican en streaming
+         * (nunca se agregan completas), maxInMemorySize solo acota cuerpos que aún se agregan
+         * (errores), los valores de texto más largos que maxFieldLength se truncan con una marca
+         * explícita y los más largos que maxStringLength hacen fallar la respuesta antes de acumularse
+         */
+        @Data
+        public static class Memory {
+            private DataSize maxInMemorySize = DataSize.ofMegabytes(1);
+            private int maxFieldLength = 65_536;
+            private int maxStringLength = 4_194_304;
+        }
+    }
+    
+    /**
+     * Caché en memoria de work items parseados
+     * Las entradas con más de revalidate-after se revalidan contra System.ChangedDate
+     */
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private long maxSize = 20_000;
+        private Duration ttl = Duration.ofMinutes(30);
+        private Duration revalidateAfter = Duration.ofSeconds(30);
+    }
+    
+    /**
+     * Índice local de jerarquía: mientras el subárbol de una épica tenga menos de ttl
+     * se resuelve sin WIQL recursivo (cambios de estructura se ven al expirar)
+     * Los subárboles expirados se descartan y, por encima de maxItems nodos, los más antiguos
+     */
+    @Data
+    public static class Hierarchy {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofMinutes(2);
+        private int maxItems = 50_000;
+    }
+    
+    /**
+     * Sincronización incremental: cada pollInterval se piden a ADO los items del proyecto
+     * modificados desde la marca de agua (System.ChangedDate) y se aplican a la caché local
+     */
+    @Data
+    public static class Sync {
+        private boolean enabled = false;
+        private Duration pollInterval = Duration.ofMinutes(1);
+        private Duration initialLookback = Duration.ofDays(1);
+        private int maxItemsPerPoll = 5_000;
+    }
+    
+    /**
+     * Índice local de títulos de épicas: tras listar todas las épicas, las búsquedas por nombre
+     * se resuelven localmente durante ttl (o indefinidamente con la sincronización al día)
+     */
+    @Data
+    public static class TitleIndex {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+    
+    /**
+     * Cliente HTTP dedicado al host de ADO (reactor-netty): pool de conexiones,
+     * timeouts y protocolo; las métricas del pool se publican como reactor.netty.connection.provider.*
+     */
+    @Data
+    public static class Http {
+        private int maxConnections = 50;
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(15);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration responseTimeout = Duration.ofSeconds(30);
+        private boolean http2 = true;
+        private boolean compression = true;
+        private boolean nativeTransport = true;
+        private boolean metrics = true;
+    }
+    
+    /**
+     * Planificador de peticiones: concurrencia adaptativa (AIMD) entre minLimit y maxLimit,
+     * cola acotada y reintento de 429/503 tras su Retry-After (defaultRetryAfter si no es legible)
+     */
+    @Data
+    public static class Scheduler {
+        private boolean enabled = true;
+        private int initialLimit = 8;
+        private int minLimit = 1;
+        private int maxLimit = 32;
+        private int maxQueue = 1_000;
+        private int maxThrottleRetries = 5;
+        private Duration defaultRetryAfter = Duration.ofSeconds(5);
+        private double remainingThreshold = 0.1;
+    }
+    
+    /**
+     * Reintentos de las llamadas de lectura (WIQL y workitemsbatch) ante 5xx, 408 y errores de red/timeout
+     * Backoff exponencial desde minBackoff hasta maxBackoff con jitter (fracción 0..1 del intervalo)
+     * maxAttempts cuenta la llamada original; los 429 los gestiona el planificador
+     */
+    @Data
+    public static class Retry {
+        private boolean enabled = true;
+        private int maxAttempts = 3;
+        private Duration minBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(5);
+        private double jitter = 0.5;
+    }
+    
+    /**
+     * Peticiones de cobertura (hedging): si una llamada tarda más que el percentil indicado
+     * de las últimas latencias (nunca menos de minDelay), se lanza una segunda y gana la primera en responder
+     * No se activa hasta reunir minSamples latencias del mismo tipo de llamada
+     */
+    @Data
+    public static class Hedge {
+        private boolean enabled = false;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(100);
+        private int minSamples = 20;
+        private int window = 256;
+    }
+    
+    /**
+     * Tiempo límite de cada llamada a herramienta MCP; se propaga al flujo reactivo
+     * y, al agotarse, las herramientas de workflow devuelven el resultado parcial obtenido
+     * Los listados (findEpics(''), listUserStories) se entregan en páginas de pageSize work items,
+     * o del tamaño que pida el cliente sin superar maxPageSize
+     */
+    @Data
+    public static class Tools {
+        private Duration deadline = Duration.ofSeconds(20);
+        private int pageSize = 100;
+        private int maxPageSize = 1000;
+    }
+    
+    /**
+     * Grabación/reproducción del tráfico con ADO en un log JSON por líneas comprimido (gzip, solo se añade)
+     * RECORD graba cada intercambio real; REPLAY sirve las respuestas grabadas sin acceder a la red,
+     * para reproducir problemas de rendimiento o perfilar con datos reales fuera de línea
+     */
+    @Data
+    public static class Traffic {
+        private Mode mode = Mode.DISABLED;
+        private String file = "ado-traffic.jsonl.gz";
+        
+        public enum Mode {
+            DISABLED, RECORD, REPLAY
+        }
     }
     
     // Helper methods para construir URLs completas
@@ -42,10 +220,32 @@ public class AdoConfiguration {
         return organization + api.baseUrl + api.endpoints.wiql + "?api-version=" + api.versions.wiql;
     }
     
+    /**
+     * WIQL con precisión de hora en comparaciones de fechas (por defecto ADO compara solo el día)
+     */
+    public String buildWiqlTimePrecisionUrl() {
+        return organization + api.baseUrl + api.endpoints.wiql + "?timePrecision=true&api-version=" + api.versions.wiql;
+    }
+    
+    public String buildWiqlTimePrecisionUrl(int top) {
+        return buildWiqlTimePrecisionUrl() + "&$top=" + top;
+    }
+    
+    /**
+     * WIQL limitado a los primeros top resultados ($top)
+     */
+    public String buildWiqlUrl(int top) {
+        return buildWiqlUrl() + "&$top=" + top;
+    }
+    
     public String buildWorkItemsUrl() {
         return organization + api.baseUrl + api.endpoints.workItems;
     }
     
+    public String buildWorkItemsBatchUrl() {
+        return organization + api.baseUrl + api.endpoints.workItemsBatch + "?api-version=" + api.versions.workItemsBatch;
+    }
+    
     public String buildWorkItemByIdUrl(Long id) {
         return buildWorkItemsUrl() + "/" + id + "?api-version=" + api.versions.workItems;
     }
@@ -54,6 +254,10 @@ public class AdoConfiguration {
         return buildWorkItemsUrl() + "/" + id + "?$expand=relations&api-version=" + api.versions.workItems;
     }
     
+    public String buildWorkItemWithFieldsUrl(Long id, String fields) {
+        return buildWorkItemsUrl() + "/" + id + "?fields=" + fields + "&api-version=" + api.versions.workItems;
+    }
+    
     public String buildRepositoriesUrl() {
         return organization + api.baseUrl + api.endpoints.repositories + "?api-version=" + api.versions.git;
     }
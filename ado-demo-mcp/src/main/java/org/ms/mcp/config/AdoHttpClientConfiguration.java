@@ -0,0 +1,92 @@
+package org.ms.mcp.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.workflows.client.AdoClientMetrics;
+import org.ms.mcp.workflows.client.AdoRequestScheduler;
+import org.ms.mcp.workflows.client.AdoTrafficRecorder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Capa HTTP hacia Azure DevOps: un ConnectionProvider y un WebClient propios,
+ * configurados con ado.http.* e independientes de los del servidor MCP
+ * Todas las peticiones pasan por el AdoRequestScheduler y se miden con AdoClientMetrics;
+ * AdoTrafficRecorder puede grabarlas o servirlas desde una grabación (ado.traffic.mode)
+ */
+@Slf4j
+@Configuration
+public class AdoHttpClientConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider adoConnectionProvider(AdoConfiguration config) {
+        AdoConfiguration.Http http = config.getHttp();
+        return ConnectionProvider.builder("ado")
+                .maxConnections(http.getMaxConnections())
+                .pendingAcquireMaxCount(http.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+                .maxIdleTime(http.getMaxIdleTime())
+                .maxLifeTime(http.getMaxLifeTime())
+                .evictInBackground(http.getEvictionInterval())
+                .metrics(http.isMetrics())
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources adoLoopResources() {
+        return LoopResources.create("ado-http");
+    }
+
+    @Bean
+    public WebClient adoWebClient(AdoConfiguration config, ConnectionProvider adoConnectionProvider,
+                                  LoopResources adoLoopResources, AdoRequestScheduler requestScheduler,
+                                  AdoClientMetrics clientMetrics, AdoTrafficRecorder trafficRecorder) {
+        AdoConfiguration.Http http = config.getHttp();
+        HttpClient httpClient = HttpClient.create(adoConnectionProvider)
+                .runOn(adoLoopResources, http.isNativeTransport())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(http.getResponseTimeout())
+                .compress(http.isCompression())
+                // HTTP/2 se negocia por ALPN sobre TLS; en texto plano se usa HTTP/1.1
+                .protocol(http.isHttp2()
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+        if (http.isHttp2() && config.getOrganization() != null && config.getOrganization().startsWith("https")) {
+            httpClient = httpClient.secure();
+        }
+
+        log.info("ADO HTTP client: {} max connections, response timeout {}, http2={}, compression={}",
+                http.getMaxConnections(), http.getResponseTimeout(), http.isHttp2(), http.isCompression());
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(requestScheduler)
+                // Por dentro del planificador: mide cada intento real, incluidos los reintentos tras 429
+                .filter(clientMetrics)
+                // El más interno: graba lo que va y viene de la red, o la sustituye al reproducir
+                .filter(trafficRecorder)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, basicAuthHeader(config.getPatToken()))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .codecs(configurer -> configurer.defaultCodecs()
+                        .maxInMemorySize((int) config.getApi().getMemory().getMaxInMemorySize().toBytes()))
+                .build();
+    }
+
+    private static String basicAuthHeader(String patToken) {
+        String auth = ":" + patToken;
+        return "Basic " + Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package org.ms.mcp.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.workflows.exception.ToolDeadlineExceededException;
+import org.ms.mcp.workflows.service.ToolDeadline;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.support.ToolDefinitions;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ReflectionUtils;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registra los métodos @Tool que retornan Mono como herramientas MCP asíncronas
+ * El resultado se entrega al event loop sin bloquear ningún hilo, a diferencia de
+ * ToolCallbacks.from que envuelve métodos síncronos en boundedElastic
+ */
+@Slf4j
+public final class AsyncToolSpecifications {
+    
+    private AsyncToolSpecifications() {
+    }
+    
+    /**
+     * Margen sobre el deadline antes de cortar la llamada: da tiempo a los servicios a devolver su resultado parcial
+     */
+    private static final Duration DEADLINE_GRACE = Duration.ofMillis(500);
+    
+    public static List<McpServerFeatures.AsyncToolSpecification> from(ObjectMapper objectMapper, Duration deadline,
+                                                                      MeterRegistry meterRegistry, Object... toolObjects) {
+        List<McpServerFeatures.AsyncToolSpecification> specifications = new ArrayList<>();
+        
+        for (Object toolObject : toolObjects) {
+            for (Method method : ReflectionUtils.getDeclaredMethods(AopUtils.getTargetClass(toolObject))) {
+                if (!method.isAnnotationPresent(Tool.class)) {
+                    continue;
+                }
+                if (!Mono.class.isAssignableFrom(method.getReturnType())) {
+                    throw new IllegalStateException("Async tool method must return Mono: " + method);
+                }
+                
+                ToolDefinition definition = ToolDefinitions.from(method);
+                McpSchema.Tool tool = new McpSchema.Tool(definition.name(), definition.description(), definition.inputSchema());
+                specifications.add(new McpServerFeatures.AsyncToolSpecification(tool,
+                        (exchange, arguments) -> call(objectMapper, deadline, serializationTimer(meterRegistry, definition.name()),
+                                toolObject, method, arguments)));
+                log.debug("Registered async tool: {}", definition.name());
+            }
+        }
+        return specifications;
+    }
+    
+    /**
+     * Cada llamada lleva su ToolDeadline en el contexto; si la herramienta no responde a tiempo se corta
+     */
+    private static Mono<McpSchema.CallToolResult> call(ObjectMapper objectMapper, Duration deadline, Timer serialization,
+                                                      Object toolObject, Method method, Map<String, Object> arguments) {
+        return Mono.defer(() -> (Mono<?>) ReflectionUtils.invokeMethod(method, toolObject, toMethodArguments(objectMapper, method, arguments)))
+                .timeout(deadline.plus(DEADLINE_GRACE), Mono.error(() -> new ToolDeadlineExceededException(deadline)))
+                .contextWrite(ToolDeadline.within(deadline))
+                .map(result -> new McpSchema.CallToolResult(serialization.record(() -> toJson(objectMapper, result)), false))
+                .onErrorResume(error -> {
+                    log.error("Error executing tool: {}", method.getName(), error);
+                    return Mono.just(new McpSchema.CallToolResult(String.valueOf(error.getMessage()), true));
+                });
+    }
+    
+    private static Object[] toMethodArguments(ObjectMapper objectMapper, Method method, Map<String, Object> arguments) {
+        Parameter[] parameters = method.getParameters();
+        Object[] values = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Object raw = arguments != null ? arguments.get(parameters[i].getName()) : null;
+            values[i] = raw == null ? null
+                    : objectMapper.convertValue(raw, objectMapper.constructType(parameters[i].getParameterizedType()));
+        }
+        return values;
+    }
+    
+    /**
+     * Serialización del resultado de cada herramienta a JSON (etapa final, fuera de la metadata del resultado)
+     */
+    private static Timer serializationTimer(MeterRegistry meterRegistry, String tool) {
+        return Timer.builder("mcp.tool.serialization")
+                .description("Serialización a JSON del resultado de las herramientas MCP")
+                .tag("tool", tool)
+                .register(meterRegistry);
+    }
+    
+    private static String toJson(ObjectMapper objectMapper, Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error serializing tool result", e);
+        }
+    }
+}
@@ -15,7 +15,7 @@ public class ReleaseNoteTools {
 
     private final AdoWorkflowService adoWorkflowService;
     @Tool(name = "generateReleaseNotes", description = ToolPrompts.RELEASE_NOTE_TOOL)
-    public EpicWorkflowResult generateReleaseNotes(String epicNameOrId) {
+    public Mono<EpicWorkflowResult> generateReleaseNotes(String epicNameOrId) {
         Mono<EpicWorkflowResult> epicMono;
         try {
             Long epicId = Long.parseLong(epicNameOrId);
@@ -23,6 +23,6 @@ public class ReleaseNoteTools {
         } catch (NumberFormatException e) {
             epicMono = adoWorkflowService.getWorkflowByPartialName(epicNameOrId);
         }
-        return epicMono.block();
+        return epicMono;
     }
 }
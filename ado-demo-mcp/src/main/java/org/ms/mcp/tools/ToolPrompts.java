@@ -26,6 +26,9 @@ public class ToolPrompts {
     ### Resumen:
     - Total de Historias de Usuario: [Número Total]
     - Total de Tareas: [Número Total]
+    
+    Si metadata.hasErrors es verdadero el resultado es parcial: genera la nota con las épicas recibidas e indica
+    al final que faltan las historias y tareas de las épicas en metadata.missingEpicIds (motivo en metadata.errorMessage).
     """;
 
     public static final String FIND_EPICS_TOOL = """
@@ -44,18 +47,30 @@ public class ToolPrompts {
         - Proyecto
        Consideraciones: Si el usuario no brinda una pista clara sobre la epica solo enviar una cadena de texto vacía
        para realizar la búsqueda
+       Las épicas se devuelven de la más a la menos relevante (título idéntico, que empieza por el texto, etc.).
+       La búsqueda ignora mayúsculas pero puede distinguir acentos: si no hay resultados, reintenta
+       escribiendo el nombre con sus tildes (p.ej. 'Migración' en lugar de 'migracion')
     
        Ejemplos:
        Prompt: Quiero ver mis epicas/ tool Call: findEpics('') // Lista todas las historias de usuario
        Prompt: Quiero ver los detalles de la Epica 12345 / tool Call: findEpics('12345') // Lista las historias de usuario asociadas a la epica con ID 12345
        Prompt: Quiero ver la epica del Lanzamiento Versión 2.0 / tool Call:   findEpics('Lanzamiento Versión 2.0') // Lista las historias de usuario asociadas a la epica llamada "Lanzamiento Versión 2.0"
    
+       Paginación: findEpics('') no devuelve todas las épicas de una vez sino una página
+       {items, pageSize, hasMore, nextCursor}. Si hasMore es verdadero y necesitas más épicas, vuelve a llamar
+       con findEpics('', pageSize, nextCursor); no inventes ni modifiques el cursor.
      """;
 
     public static final String USER_STORY_TOOL = """
-    Lista Todas las historias de usuario (Issues) del proyecto en Azure DevOps.
+    Lista Todas las historias de usuario (Issues) del proyecto en Azure DevOps, en páginas ordenadas por ID.
+    Devuelve {items, pageSize, hasMore, nextCursor}. Si hasMore es verdadero y necesitas más historias, vuelve a
+    llamar pasando nextCursor como cursor; no inventes ni modifiques el cursor.
     """;
 
+    public static final String PAGE_SIZE_PARAM = "Work items por página (opcional, por defecto el configurado en el servidor)";
+
+    public static final String CURSOR_PARAM = "nextCursor de la página anterior; vacío para la primera página";
+
     public static final String USER_STORY_BY_EPIC_PROMPT = """
     Lista Todas las historias de usuario (Issues) del proyecto en Azure DevOps que pertenecen
     El usuario podrá hacer referencia al ID de la Epica o al nombre de la misma en ambos casos podrás
@@ -4,10 +4,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.config.AdoConfiguration;
 import org.ms.mcp.workflows.client.AdoWorkflowClient;
-import org.ms.mcp.workflows.dto.EpicInfo;
+import org.ms.mcp.workflows.dto.PagedResult;
 import org.ms.mcp.workflows.dto.UserStoryInfo;
+import org.ms.mcp.workflows.util.WorkItemProjection;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Mono;
@@ -21,10 +24,16 @@ public class UserStoryTools {
     
     private final AdoWorkflowClient simplifiedClient;
     private final ObjectMapper objectMapper;
+    private final AdoConfiguration config;
 
+    /**
+     * Por ID o nombre devuelve la lista de épicas; sin ninguno de los dos, una página del listado completo
+     */
     @Tool(name = "findEpics", description = ToolPrompts.FIND_EPICS_TOOL)
-    public JsonNode findEpics(String epicNameOrId) {
-        Mono<List<EpicInfo>> epicInfoMono;
+    public Mono<JsonNode> findEpics(String epicNameOrId,
+                                    @ToolParam(required = false, description = ToolPrompts.PAGE_SIZE_PARAM) Integer pageSize,
+                                    @ToolParam(required = false, description = ToolPrompts.CURSOR_PARAM) String cursor) {
+        Mono<?> epicInfoMono;
         if(StringUtils.hasLength(epicNameOrId)) {
             if(epicNameOrId.matches("\\d+")) {
                 Long epicId = Long.parseLong(epicNameOrId);
@@ -36,7 +45,7 @@ public class UserStoryTools {
                 epicInfoMono = simplifiedClient.findEpicsByName(epicNameOrId);
             }
         } else {
-            epicInfoMono = simplifiedClient.findEpicsByName("");
+            epicInfoMono = simplifiedClient.listEpics(pageSize(pageSize), cursor);
         }
         Mono<JsonNode> jsonNodeMono = epicInfoMono.map(objectMapper::valueToTree);
         return jsonNodeMono
@@ -45,13 +54,14 @@ public class UserStoryTools {
                     return Mono.just(objectMapper.createObjectNode()
                             .put("error", "Error finding user stories for all Epics" + throwable.getMessage())
                             .put("success", false));
-                })
-                .block();
+                });
     }
 
     @Tool(name = "listUserStories", description = ToolPrompts.USER_STORY_TOOL)
-    public JsonNode listUserStories() {
-        Mono<List<UserStoryInfo>>  userStoryInfo = simplifiedClient.getUserStoriesByEpicName("");
+    public Mono<JsonNode> listUserStories(@ToolParam(required = false, description = ToolPrompts.PAGE_SIZE_PARAM) Integer pageSize,
+                                          @ToolParam(required = false, description = ToolPrompts.CURSOR_PARAM) String cursor) {
+        Mono<PagedResult<UserStoryInfo>> userStoryInfo =
+                simplifiedClient.listUserStories(pageSize(pageSize), cursor, WorkItemProjection.SUMMARY);
         Mono<JsonNode> jsonNodeMono = userStoryInfo.map(objectMapper::valueToTree);
         return jsonNodeMono
                 .onErrorResume(throwable -> {
@@ -59,12 +69,11 @@ public class UserStoryTools {
                     return Mono.just(objectMapper.createObjectNode()
                             .put("error", "Error finding user stories for all Epics" + throwable.getMessage())
                             .put("success", false));
-                })
-                .block();
+                });
     }
 
     @Tool(name = "findUserStoriesByEpic", description = ToolPrompts.USER_STORY_BY_EPIC_PROMPT)
-    public JsonNode findUserStoriesByEpic(String epicNameOrId) {
+    public Mono<JsonNode> findUserStoriesByEpic(String epicNameOrId) {
         Mono<List<UserStoryInfo>> userStoryInfo;
         try {
             Long epicId = Long.parseLong(epicNameOrId);
@@ -80,7 +89,10 @@ public class UserStoryTools {
                             .put("error", "Error finding user stories for epic " + epicNameOrId + ": " + throwable.getMessage())
                             .put("epic", epicNameOrId)
                             .put("success", false));
-                })
-                .block();
+                });
+    }
+
+    private int pageSize(Integer requested) {
+        return requested != null ? requested : config.getTools().getPageSize();
     }
 }
@@ -0,0 +1,158 @@
+package org.ms.mcp.workflows.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.config.AdoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Política de ejecución de las llamadas de lectura a Azure DevOps (WIQL y workitemsbatch, ambas idempotentes)
+ * - Reintentos con backoff exponencial y jitter ante 5xx, 408 y errores de red/timeout (ado.retry.*)
+ * - Hedging opcional: pasado el percentil configurado de las últimas latencias de la operación
+ *   se lanza una segunda llamada y se queda la primera que responda (ado.hedge.*)
+ * Los 429 no se reintentan aquí: los gestiona el AdoRequestScheduler con su Retry-After
+ */
+@Slf4j
+@Component
+public class AdoCallPolicy {
+
+    private final AdoConfiguration.Retry retrySettings;
+    private final AdoConfiguration.Hedge hedgeSettings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+
+    public AdoCallPolicy(AdoConfiguration config, MeterRegistry meterRegistry) {
+        this.retrySettings = config.getRetry();
+        this.hedgeSettings = config.getHedge();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Ejecuta la llamada aplicando reintentos y, si está activo, hedging
+     * @param operation tipo de llamada (wiql, batch); agrupa latencias y métricas
+     * @param call fábrica de la llamada: cada intento se suscribe a una llamada nueva
+     */
+    public <T> Mono<T> execute(String operation, Supplier<Mono<T>> call) {
+        Mono<T> attempt = withRetries(operation, timed(operation, call));
+        return hedgeSettings.isEnabled() ? hedged(operation, attempt) : attempt;
+    }
+
+    // =====================================================
+    // REINTENTOS
+    // =====================================================
+
+    private <T> Mono<T> withRetries(String operation, Mono<T> attempt) {
+        if (!retrySettings.isEnabled() || retrySettings.getMaxAttempts() <= 1) {
+            return attempt;
+        }
+
+        Retry retry = Retry.backoff(retrySettings.getMaxAttempts() - 1, retrySettings.getMinBackoff())
+                .maxBackoff(retrySettings.getMaxBackoff())
+                .jitter(retrySettings.getJitter())
+                .filter(AdoCallPolicy::isRetryable)
+                .doBeforeRetry(signal -> {
+                    counter("ado.client.retries", operation).increment();
+                    log.warn("ADO {} call failed ({}), retry {} of {}", operation, describe(signal.failure()),
+                            signal.totalRetries() + 1, retrySettings.getMaxAttempts() - 1);
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+        return attempt.retryWhen(retry);
+    }
+
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == HttpStatus.REQUEST_TIMEOUT.value()
+                    || (response.getStatusCode().is5xxServerError() && status != HttpStatus.NOT_IMPLEMENTED.value());
+        }
+        // Errores de conexión/envío, cierres prematuros durante el cuerpo y timeouts
+        return error instanceof WebClientRequestException
+                || error instanceof IOException
+                || error instanceof TimeoutException;
+    }
+
+    // =====================================================
+    // HEDGING
+    // =====================================================
+
+    private <T> Mono<T> hedged(String operation, Mono<T> attempt) {
+        return Mono.defer(() -> {
+            LatencyTracker tracker = tracker(operation);
+            if (tracker.size() < hedgeSettings.getMinSamples()) {
+                return attempt;
+            }
+
+            Duration delay = tracker.percentile(hedgeSettings.getPercentile());
+            if (delay.compareTo(hedgeSettings.getMinDelay()) < 0) {
+                delay = hedgeSettings.getMinDelay();
+            }
+            Mono<T> hedge = Mono.delay(delay)
+                    .then(Mono.defer(() -> {
+                        counter("ado.client.hedges", operation).increment();
+                        log.debug("ADO {} call slower than p{}, sending hedged request",
+                                operation, Math.round(hedgeSettings.getPercentile() * 100));
+                        return attempt;
+                    }))
+                    // firstWithValue cancela la llamada perdedora: si emite la cobertura, ganó ella
+                    .doOnNext(value -> counter("ado.client.hedge.wins", operation).increment());
+
+            return Mono.firstWithValue(attempt, hedge)
+                    .onErrorMap(AdoCallPolicy::isAllFailed, AdoCallPolicy::firstFailure);
+        });
+    }
+
+    /**
+     * firstWithValue señala que todas fallaron con un NoSuchElementException cuya causa agrupa los errores
+     */
+    private static boolean isAllFailed(Throwable error) {
+        return error instanceof NoSuchElementException && error.getCause() != null && Exceptions.isMultiple(error.getCause());
+    }
+
+    private static Throwable firstFailure(Throwable error) {
+        return Exceptions.unwrapMultiple(error.getCause()).get(0);
+    }
+
+    // =====================================================
+    // LATENCIAS Y MÉTRICAS
+    // =====================================================
+
+    /**
+     * Registra la latencia de cada intento que termina con valor (base del percentil de hedging)
+     */
+    private <T> Mono<T> timed(String operation, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get()
+                    .doOnNext(value -> tracker(operation).record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    private LatencyTracker tracker(String operation) {
+        return latencies.computeIfAbsent(operation, key -> new LatencyTracker(hedgeSettings.getWindow()));
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    private static String describe(Throwable error) {
+        return error instanceof WebClientResponseException response
+                ? "HTTP " + response.getStatusCode().value()
+                : error.getClass().getSimpleName();
+    }
+}
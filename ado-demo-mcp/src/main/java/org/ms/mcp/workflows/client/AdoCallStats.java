@@ -0,0 +1,64 @@
+package org.ms.mcp.workflows.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Estadísticas reales de las llamadas a ADO de un flujo (una llamada a herramienta),
+ * propagadas por el Context de Reactor: peticiones HTTP por endpoint (reintentos, hedging
+ * y 429 incluidos), bytes recibidos y tiempo de parseo
+ * Una petición compartida con otro flujo (InFlightRequests) cuenta solo para quien la originó
+ */
+public final class AdoCallStats {
+    
+    private static final Object KEY = AdoCallStats.class;
+    
+    private final Map<String, LongAdder> requestsByEndpoint = new ConcurrentHashMap<>();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    
+    public static Function<Context, Context> attach(AdoCallStats stats) {
+        return context -> context.put(KEY, stats);
+    }
+    
+    static Optional<AdoCallStats> from(ContextView context) {
+        return context.getOrEmpty(KEY);
+    }
+    
+    void recordRequest(String endpoint) {
+        requestsByEndpoint.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+    
+    void recordResponseBytes(long bytes) {
+        responseBytes.add(bytes);
+    }
+    
+    void recordParse(long nanos) {
+        parseNanos.add(nanos);
+    }
+    
+    public int getRequests() {
+        return requestsByEndpoint.values().stream().mapToInt(LongAdder::intValue).sum();
+    }
+    
+    public Map<String, Integer> getRequestsByEndpoint() {
+        Map<String, Integer> requests = new TreeMap<>();
+        requestsByEndpoint.forEach((endpoint, count) -> requests.put(endpoint, count.intValue()));
+        return requests;
+    }
+    
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+    
+    public long getParseNanos() {
+        return parseNanos.sum();
+    }
+}
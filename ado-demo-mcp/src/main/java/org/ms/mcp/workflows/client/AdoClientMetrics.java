@@ -0,0 +1,179 @@
+package org.ms.mcp.workflows.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.ms.mcp.workflows.util.ParseClock;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Instrumentación de las llamadas HTTP a ADO (filtro del WebClient de ADO, por dentro del planificador,
+ * de modo que cada intento real cuenta como una petición)
+ * - ado.client.requests: latencia hasta el final del cuerpo, con histograma, por endpoint/método/estado
+ * - ado.client.response.bytes: bytes del cuerpo ya descomprimido, por endpoint
+ * - ado.client.parse: tiempo de tokenizado y paso a DTOs de cada respuesta, por endpoint
+ * - ado.workflow.stage / ado.workflow.stage.items: duración y elementos de cada etapa de los flujos
+ * Además se acumulan en el AdoCallStats / WorkflowStages del contexto, si el flujo los lleva
+ */
+@Component
+public class AdoClientMetrics implements ExchangeFilterFunction {
+
+    static final String WIQL = "wiql";
+    static final String WORK_ITEMS_BATCH = "workitemsbatch";
+    static final String WORK_ITEMS = "workitems";
+    private static final String OTHER = "other";
+
+    static final String STAGE_EPIC_SEARCH = "epicSearch";
+    static final String STAGE_EPIC = "epic";
+    static final String STAGE_HIERARCHY_LINKS = "hierarchyLinks";
+    static final String STAGE_WORK_ITEM_DETAILS = "workItemDetails";
+    static final String STAGE_ASSIGN_PARENTS = "assignParents";
+    static final String STAGE_ASSEMBLE = "assemble";
+    static final String STAGE_PARSE = "parse";
+
+    private final MeterRegistry meterRegistry;
+
+    public AdoClientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = endpoint(request.url());
+        return Mono.deferContextual(context -> {
+            Optional<AdoCallStats> stats = AdoCallStats.from(context);
+            stats.ifPresent(callStats -> callStats.recordRequest(endpoint));
+            long start = System.nanoTime();
+
+            return next.exchange(request)
+                    .map(response -> {
+                        int status = response.statusCode().value();
+                        long[] bytes = {0};
+                        // La petición se mide hasta el final del cuerpo (o su descarte); los bytes van al
+                        // AdoCallStats según llegan, antes de que el flujo emita su resultado
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnNext(buffer -> {
+                                            int size = buffer.readableByteCount();
+                                            bytes[0] += size;
+                                            stats.ifPresent(callStats -> callStats.recordResponseBytes(size));
+                                        })
+                                        .doFinally(signal -> {
+                                            recordRequest(endpoint, request, String.valueOf(status),
+                                                    Outcome.forStatus(status).name(), start);
+                                            responseBytes(endpoint).record(bytes[0]);
+                                        }))
+                                .build();
+                    })
+                    .doOnError(error -> recordRequest(endpoint, request, "IO_ERROR", Outcome.UNKNOWN.name(), start));
+        });
+    }
+
+    /**
+     * Registra el tiempo de parseo de una respuesta ya decodificada (también como etapa "parse")
+     */
+    <T> Mono<T> recordParse(String endpoint, ParseClock clock, Mono<T> parsed, ToIntFunction<T> items) {
+        return Mono.deferContextual(context -> parsed.doOnNext(result -> {
+            Timer.builder("ado.client.parse")
+                    .description("Tokenizado y paso a DTOs de las respuestas de Azure DevOps")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .record(clock.nanos(), TimeUnit.NANOSECONDS);
+            AdoCallStats.from(context).ifPresent(callStats -> callStats.recordParse(clock.nanos()));
+            recordStage(STAGE_PARSE, clock.nanos(), items.applyAsInt(result), context);
+        }));
+    }
+
+    // =====================================================
+    // ETAPAS DEL FLUJO
+    // =====================================================
+
+    /**
+     * Mide una etapa asíncrona desde la suscripción hasta su valor
+     */
+    <T> Mono<T> stage(String stage, Mono<T> work, ToIntFunction<T> items) {
+        return Mono.deferContextual(context -> {
+            long start = System.nanoTime();
+            return work.doOnNext(result -> recordStage(stage, System.nanoTime() - start, items.applyAsInt(result), context));
+        });
+    }
+
+    /**
+     * Mide una transformación síncrona como etapa (para usar con transform)
+     */
+    <T, R> Function<Mono<T>, Mono<R>> stageMap(String stage, Function<T, R> work, ToIntFunction<R> items) {
+        return mono -> mono.transformDeferredContextual((source, context) -> source.map(value -> {
+            long start = System.nanoTime();
+            R result = work.apply(value);
+            recordStage(stage, System.nanoTime() - start, items.applyAsInt(result), context);
+            return result;
+        }));
+    }
+
+    /**
+     * Agrega la etapa en ado.workflow.stage / ado.workflow.stage.items y en el WorkflowStages del contexto
+     */
+    private void recordStage(String stage, long nanos, int items, ContextView context) {
+        Timer.builder("ado.workflow.stage")
+                .description("Duración de las etapas de los flujos de épica")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("ado.workflow.stage.items")
+                .description("Elementos procesados por etapa de los flujos de épica")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(items);
+        WorkflowStages.from(context).ifPresent(stages -> stages.record(stage, nanos, items));
+    }
+
+    private void recordRequest(String endpoint, ClientRequest request, String status, String outcome, long start) {
+        Timer.builder("ado.client.requests")
+                .description("Peticiones HTTP a Azure DevOps")
+                .tag("endpoint", endpoint)
+                .tag("method", request.method().name())
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private DistributionSummary responseBytes(String endpoint) {
+        return DistributionSummary.builder("ado.client.response.bytes")
+                .description("Tamaño del cuerpo de las respuestas de Azure DevOps")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Endpoint por ruta, con cardinalidad acotada (sin IDs)
+     */
+    private static String endpoint(URI url) {
+        String path = url.getPath();
+        if (path.endsWith("/wiql")) {
+            return WIQL;
+        }
+        if (path.endsWith("/workitemsbatch")) {
+            return WORK_ITEMS_BATCH;
+        }
+        if (path.contains("/workitems")) {
+            return WORK_ITEMS;
+        }
+        return OTHER;
+    }
+}
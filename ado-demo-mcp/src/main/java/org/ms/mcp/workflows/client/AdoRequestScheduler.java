@@ -0,0 +1,271 @@
+package org.ms.mcp.workflows.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.exception.AdoWorkflowException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Planificador central de las peticiones a Azure DevOps (filtro del WebClient de ADO)
+ * - Concurrencia adaptativa AIMD: +1/límite por respuesta sana, x0.5 ante señales de throttling
+ *   (429/503, X-RateLimit-Delay o X-RateLimit-Remaining por debajo del umbral)
+ * - Retry-After (o un X-RateLimit-Delay positivo) fija un instante antes del cual no sale ninguna petición
+ * - Sin permisos libres las peticiones esperan en cola; un 429/503 se reintenta tras la espera
+ * El permiso se libera al recibir las cabeceras de la respuesta
+ */
+@Slf4j
+@Component
+public class AdoRequestScheduler implements ExchangeFilterFunction {
+
+    private static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    private static final String RATE_LIMIT_LIMIT = "X-RateLimit-Limit";
+    private static final String RATE_LIMIT_DELAY = "X-RateLimit-Delay";
+
+    /** Intervalo mínimo entre dos reducciones del límite (una ráfaga de 429 cuenta como una señal) */
+    private static final Duration DECREASE_COOLDOWN = Duration.ofSeconds(1);
+
+    /**
+     * Petición en espera de permiso; acquired se marca al concedérselo
+     */
+    private record Waiter(MonoSink<Void> sink, AtomicBoolean acquired) {
+    }
+
+    private final AdoConfiguration.Scheduler settings;
+    private final Deque<Waiter> waiting = new ArrayDeque<>();
+    private final Counter throttled;
+    private final Counter retriedAfterThrottle;
+
+    private double limit;
+    private int inFlight;
+    private Instant lastDecrease = Instant.EPOCH;
+    private volatile Instant notBefore = Instant.EPOCH;
+
+    public AdoRequestScheduler(AdoConfiguration config, MeterRegistry meterRegistry) {
+        this.settings = config.getScheduler();
+        this.limit = settings.getInitialLimit();
+        this.throttled = Counter.builder("ado.scheduler.throttled")
+                .description("Respuestas de Azure DevOps con señales de throttling")
+                .register(meterRegistry);
+        this.retriedAfterThrottle = Counter.builder("ado.scheduler.throttle.retries")
+                .description("Peticiones reintentadas tras un 429/503 con Retry-After")
+                .register(meterRegistry);
+        meterRegistry.gauge("ado.scheduler.limit", this, scheduler -> scheduler.currentLimit());
+        meterRegistry.gauge("ado.scheduler.in.flight", this, scheduler -> scheduler.inFlight());
+        meterRegistry.gauge("ado.scheduler.queue.depth", this, scheduler -> scheduler.queueDepth());
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!settings.isEnabled()) {
+            return next.exchange(request);
+        }
+
+        return Mono.defer(() -> schedule(request, next, 1));
+    }
+
+    private Mono<ClientResponse> schedule(ClientRequest request, ExchangeFunction next, int attempt) {
+        AtomicBoolean acquired = new AtomicBoolean();
+        return acquire(acquired)
+                .then(Mono.defer(this::awaitNotBefore))
+                .then(Mono.defer(() -> next.exchange(request)))
+                .doOnNext(response -> {
+                    onResponse(response);
+                    if (acquired.getAndSet(false)) {
+                        release();
+                    }
+                })
+                .doFinally(signal -> {
+                    if (acquired.getAndSet(false)) {
+                        release();
+                    }
+                })
+                .flatMap(response -> {
+                    if (isThrottled(response) && attempt <= settings.getMaxThrottleRetries()) {
+                        retriedAfterThrottle.increment();
+                        log.warn("ADO throttled {} {} (HTTP {}), retrying after {}", request.method(), request.url().getPath(),
+                                response.statusCode().value(), Duration.between(Instant.now(), notBefore));
+                        return response.releaseBody().then(Mono.defer(() -> schedule(request, next, attempt + 1)));
+                    }
+                    return Mono.just(response);
+                });
+    }
+
+    // =====================================================
+    // PERMISOS Y COLA
+    // =====================================================
+
+    private Mono<Void> acquire(AtomicBoolean acquired) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, acquired);
+            synchronized (this) {
+                if (inFlight < permits()) {
+                    inFlight++;
+                    acquired.set(true);
+                } else if (waiting.size() >= settings.getMaxQueue()) {
+                    sink.error(new AdoWorkflowException("Cola de peticiones a Azure DevOps llena"));
+                    return;
+                } else {
+                    waiting.add(waiter);
+                    sink.onCancel(() -> {
+                        synchronized (this) {
+                            waiting.remove(waiter);
+                        }
+                    });
+                    return;
+                }
+            }
+            sink.success();
+        });
+    }
+
+    private void release() {
+        Deque<Waiter> granted = new ArrayDeque<>();
+        synchronized (this) {
+            inFlight--;
+            while (!waiting.isEmpty() && inFlight < permits()) {
+                Waiter waiter = waiting.poll();
+                waiter.acquired().set(true);
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+        granted.forEach(waiter -> waiter.sink().success());
+    }
+
+    private Mono<Void> awaitNotBefore() {
+        Duration wait = Duration.between(Instant.now(), notBefore);
+        return wait.isNegative() || wait.isZero() ? Mono.empty() : Mono.delay(wait).then();
+    }
+
+    private int permits() {
+        return Math.max(settings.getMinLimit(), (int) limit);
+    }
+
+    // =====================================================
+    // SEÑALES DE RATE LIMIT
+    // =====================================================
+
+    private void onResponse(ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        Duration pause = retryAfter(headers);
+        if (pause == null && isThrottled(response)) {
+            pause = settings.getDefaultRetryAfter();
+        }
+        Duration delay = rateLimitDelay(headers);
+        if (delay != null && (pause == null || delay.compareTo(pause) > 0)) {
+            pause = delay;
+        }
+        if (pause != null) {
+            pauseUntil(Instant.now().plus(pause));
+        }
+
+        if (isThrottled(response) || headers.containsKey(RATE_LIMIT_DELAY) || isNearLimit(headers)) {
+            throttled.increment();
+            decrease();
+        } else if (response.statusCode().is2xxSuccessful()) {
+            increase();
+        }
+    }
+
+    private synchronized void pauseUntil(Instant until) {
+        if (until.isAfter(notBefore)) {
+            notBefore = until;
+        }
+    }
+
+    private boolean isThrottled(ClientResponse response) {
+        int status = response.statusCode().value();
+        return status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || (status == HttpStatus.SERVICE_UNAVAILABLE.value() && response.headers().header(HttpHeaders.RETRY_AFTER).size() > 0);
+    }
+
+    private boolean isNearLimit(HttpHeaders headers) {
+        Double remaining = parseDouble(headers.getFirst(RATE_LIMIT_REMAINING));
+        Double total = parseDouble(headers.getFirst(RATE_LIMIT_LIMIT));
+        return remaining != null && total != null && total > 0 && remaining / total < settings.getRemainingThreshold();
+    }
+
+    private Duration retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return null;
+        }
+        Double seconds = parseDouble(value);
+        if (seconds != null) {
+            return Duration.ofMillis((long) (seconds * 1000));
+        }
+        try {
+            long epochMillis = headers.getFirstDate(HttpHeaders.RETRY_AFTER);
+            return Duration.ofMillis(Math.max(0, epochMillis - System.currentTimeMillis()));
+        } catch (IllegalArgumentException e) {
+            return settings.getDefaultRetryAfter();
+        }
+    }
+
+    /**
+     * X-RateLimit-Delay: segundos (con decimales) que ADO ya retrasó la petición; solo cuenta si es positivo
+     */
+    private Duration rateLimitDelay(HttpHeaders headers) {
+        Double seconds = parseDouble(headers.getFirst(RATE_LIMIT_DELAY));
+        return seconds == null || seconds <= 0 ? null : Duration.ofMillis((long) (seconds * 1000));
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(settings.getMaxLimit(), limit + 1.0 / Math.max(1.0, limit));
+    }
+
+    private void decrease() {
+        synchronized (this) {
+            Instant now = Instant.now();
+            if (lastDecrease.plus(DECREASE_COOLDOWN).isAfter(now)) {
+                return;
+            }
+            lastDecrease = now;
+            limit = Math.max(settings.getMinLimit(), limit / 2);
+        }
+        log.info("ADO rate limit signal, concurrency limit lowered to {}", currentLimit());
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // =====================================================
+    // MÉTRICAS
+    // =====================================================
+
+    public synchronized double currentLimit() {
+        return permits();
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queueDepth() {
+        return waiting.size();
+    }
+}
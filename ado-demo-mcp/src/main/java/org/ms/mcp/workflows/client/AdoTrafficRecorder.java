@@ -0,0 +1,389 @@
+package org.ms.mcp.workflows.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.exception.AdoWorkflowException;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.AbstractClientHttpRequest;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Grabación y reproducción del tráfico con Azure DevOps (filtro más interno del WebClient de ADO, ado.traffic.*)
+ * - RECORD: cada petición (método, ruta relativa a la organización, cuerpo) y su respuesta (estado, cabeceras,
+ *   cuerpo descomprimido) se añade como una línea JSON a un log gzip; cada arranque añade un miembro gzip nuevo
+ *   y cada intercambio se vuelca con sync flush, de modo que un log cortado se lee hasta el último completo
+ *   El intercambio se graba cuando termina el cuerpo, también si está vacío, se libera sin leer o se cancela
+ *   (con lo recibido hasta entonces), para que la secuencia de respuestas de cada petición quede completa
+ * - REPLAY: las respuestas se sirven desde el log sin red; las peticiones iguales reciben las respuestas
+ *   en el orden en que se grabaron (reintentos incluidos) y, agotadas, se repite la última
+ * Las fechas literales de las consultas WIQL no forman parte de la clave (marcas de agua, revalidaciones),
+ * y las cabeceras de la petición, con el PAT, nunca se graban
+ */
+@Slf4j
+@Component
+public class AdoTrafficRecorder implements ExchangeFilterFunction {
+
+    private static final Pattern WIQL_INSTANT = Pattern.compile("'\\d{4}-\\d{2}-\\d{2}T[^']*'");
+
+    /** Cabeceras que dejan de ser ciertas al grabar el cuerpo descomprimido (o son de la conexión) */
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "content-length", "content-encoding", "transfer-encoding", "connection", "keep-alive", "set-cookie");
+
+    private static final BodyInserter.Context INSERTER_CONTEXT = new BodyInserter.Context() {
+        private final List<HttpMessageWriter<?>> writers = ExchangeStrategies.withDefaults().messageWriters();
+
+        @Override
+        public List<HttpMessageWriter<?>> messageWriters() {
+            return writers;
+        }
+
+        @Override
+        public Optional<ServerHttpRequest> serverRequest() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<String, Object> hints() {
+            return Map.of();
+        }
+    };
+
+    /**
+     * Un intercambio grabado (una línea del log)
+     */
+    record Exchange(String at, String method, String path, String request, int status,
+                    Map<String, List<String>> headers, String body) {
+    }
+
+    /**
+     * Respuestas grabadas para una misma petición, en orden de grabación
+     */
+    private static final class Recording {
+        private final List<Exchange> exchanges = new ArrayList<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        Exchange next() {
+            int index = next.getAndIncrement();
+            return exchanges.get(Math.min(index, exchanges.size() - 1));
+        }
+    }
+
+    private final AdoConfiguration.Traffic settings;
+    private final String organizationPath;
+    private final ExchangeStrategies replayStrategies;
+    // Los logs anteriores guardan un único valor por cabecera
+    private final ObjectMapper mapper = new ObjectMapper()
+            .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final Map<String, Recording> recordings = new HashMap<>();
+    private Scheduler recorder;
+    private Writer trafficLog;
+
+    public AdoTrafficRecorder(AdoConfiguration config) {
+        this.settings = config.getTraffic();
+        String organization = config.getOrganization();
+        this.organizationPath = organization == null ? "" : URI.create(organization).getRawPath();
+        int maxInMemorySize = (int) config.getApi().getMemory().getMaxInMemorySize().toBytes();
+        this.replayStrategies = ExchangeStrategies.builder()
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+
+        switch (settings.getMode()) {
+            case RECORD -> openLog(Path.of(settings.getFile()));
+            case REPLAY -> loadLog(Path.of(settings.getFile()));
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return switch (settings.getMode()) {
+            case RECORD -> requestBody(request).flatMap(body -> record(request, next, body));
+            case REPLAY -> requestBody(request).flatMap(body -> replay(request, body));
+            default -> next.exchange(request);
+        };
+    }
+
+    @PreDestroy
+    public void close() {
+        if (recorder == null) {
+            return;
+        }
+        recorder.disposeGracefully().timeout(Duration.ofSeconds(10)).onErrorResume(error -> Mono.empty()).block();
+        try {
+            trafficLog.close();
+        } catch (IOException e) {
+            log.warn("Could not close ADO traffic log {}: {}", settings.getFile(), e.getMessage());
+        }
+    }
+
+    // =====================================================
+    // GRABACIÓN
+    // =====================================================
+
+    private Mono<ClientResponse> record(ClientRequest request, ExchangeFunction next, String requestBody) {
+        return next.exchange(request)
+                .map(response -> {
+                    ByteArrayOutputStream copy = new ByteArrayOutputStream();
+                    AtomicBoolean recorded = new AtomicBoolean();
+                    return response.mutate()
+                            .body(body -> body
+                                    .doOnNext(buffer -> copy(buffer, copy))
+                                    .doFinally(signal -> {
+                                        if (recorded.compareAndSet(false, true)) {
+                                            append(new Exchange(Instant.now().toString(),
+                                                    request.method().name(), relativePath(request.url()), requestBody,
+                                                    response.statusCode().value(), recordedHeaders(response.headers().asHttpHeaders()),
+                                                    copy.toString(StandardCharsets.UTF_8)));
+                                        }
+                                    }))
+                            .build();
+                });
+    }
+
+    private static void copy(DataBuffer buffer, ByteArrayOutputStream copy) {
+        int size = buffer.readableByteCount();
+        ByteBuffer bytes = ByteBuffer.allocate(size);
+        buffer.toByteBuffer(buffer.readPosition(), bytes, 0, size);
+        copy.write(bytes.array(), 0, size);
+    }
+
+    private static Map<String, List<String>> recordedHeaders(HttpHeaders headers) {
+        Map<String, List<String>> recorded = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase()) && !values.isEmpty()) {
+                recorded.put(name, List.copyOf(values));
+            }
+        });
+        return recorded;
+    }
+
+    private void openLog(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            trafficLog = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file.toFile(), true), true),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open ADO traffic log " + file, e);
+        }
+        recorder = Schedulers.newSingle("ado-traffic-recorder");
+        log.info("Recording ADO traffic to {}", file.toAbsolutePath());
+    }
+
+    /**
+     * Escritura en un único hilo propio: el event loop no toca el disco y las líneas no se entrelazan
+     */
+    private void append(Exchange exchange) {
+        recorder.schedule(() -> {
+            try {
+                trafficLog.write(mapper.writeValueAsString(exchange));
+                trafficLog.write('\n');
+                trafficLog.flush();
+            } catch (IOException e) {
+                log.warn("Could not record ADO exchange {} {}: {}",
+                        exchange.method(), exchange.path(), e.getMessage());
+            }
+        });
+    }
+
+    // =====================================================
+    // REPRODUCCIÓN
+    // =====================================================
+
+    private Mono<ClientResponse> replay(ClientRequest request, String requestBody) {
+        String path = relativePath(request.url());
+        Recording recording = recordings.get(key(request.method().name(), path, requestBody));
+        if (recording == null) {
+            return Mono.error(new AdoWorkflowException("Sin respuesta grabada para " + request.method() + " " + path));
+        }
+
+        Exchange exchange = recording.next();
+        return Mono.just(ClientResponse.create(HttpStatusCode.valueOf(exchange.status()), replayStrategies)
+                .headers(headers -> exchange.headers().forEach(headers::put))
+                .body(Flux.defer(() -> Flux.just(bufferFactory.wrap(exchange.body().getBytes(StandardCharsets.UTF_8)))))
+                .build());
+    }
+
+    private void loadLog(Path file) {
+        int exchanges = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Exchange exchange = parse(line);
+                if (exchange != null) {
+                    recordings.computeIfAbsent(key(exchange.method(), exchange.path(), exchange.request()),
+                            key -> new Recording()).exchanges.add(exchange);
+                    exchanges++;
+                }
+            }
+        } catch (EOFException e) {
+            // Log de un proceso que no terminó limpio: vale hasta el último intercambio volcado
+            log.warn("ADO traffic log {} is truncated, replaying the {} complete exchanges", file, exchanges);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read ADO traffic log " + file, e);
+        }
+        log.info("Replaying ADO traffic from {}: {} exchanges, {} distinct requests",
+                file.toAbsolutePath(), exchanges, recordings.size());
+    }
+
+    private Exchange parse(String line) {
+        try {
+            return mapper.readValue(line, Exchange.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable ADO traffic log line: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    // =====================================================
+    // CLAVE DE LA PETICIÓN
+    // =====================================================
+
+    private String relativePath(URI url) {
+        String path = url.getRawPath();
+        if (!organizationPath.isEmpty() && path.startsWith(organizationPath)) {
+            path = path.substring(organizationPath.length());
+        }
+        return url.getRawQuery() == null ? path : path + "?" + url.getRawQuery();
+    }
+
+    private static String key(String method, String path, String requestBody) {
+        return method + " " + path + " " + WIQL_INSTANT.matcher(requestBody).replaceAll("'<instant>'");
+    }
+
+    /**
+     * Cuerpo de la petición tal y como lo escribiría el conector (los BodyInserter se pueden volver a insertar)
+     */
+    private static Mono<String> requestBody(ClientRequest request) {
+        CapturedRequest captured = new CapturedRequest(request.method(), request.url());
+        return request.body().insert(captured, INSERTER_CONTEXT)
+                .then(Mono.fromSupplier(captured::body));
+    }
+
+    /**
+     * Petición en memoria sobre la que se inserta el cuerpo para obtener sus bytes
+     */
+    private static final class CapturedRequest extends AbstractClientHttpRequest {
+
+        private final HttpMethod method;
+        private final URI uri;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        CapturedRequest(HttpMethod method, URI uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        String body() {
+            return body.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public DataBufferFactory bufferFactory() {
+            return DefaultDataBufferFactory.sharedInstance;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getNativeRequest() {
+            return (T) this;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> chunks) {
+            return Flux.from(chunks)
+                    .doOnNext(buffer -> {
+                        copy(buffer, body);
+                        DataBufferUtils.release(buffer);
+                    })
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> chunks) {
+            return Flux.from(chunks).concatMap(this::writeWith).then();
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+
+        @Override
+        protected void applyHeaders() {
+        }
+
+        @Override
+        protected void applyCookies() {
+        }
+    }
+}
@@ -1,22 +1,42 @@
 package org.ms.mcp.workflows.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
 import org.ms.mcp.config.AdoConfiguration;
 import org.ms.mcp.workflows.dto.*;
 import org.ms.mcp.workflows.exception.AdoWorkflowException;
+import org.ms.mcp.workflows.store.EpicTitleIndex;
+import org.ms.mcp.workflows.store.WorkItemCache;
+import org.ms.mcp.workflows.store.WorkItemHierarchyIndex;
 import org.ms.mcp.workflows.util.AdoResponseParser;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.ms.mcp.workflows.util.PageCursor;
+import org.ms.mcp.workflows.util.ParseClock;
+import org.ms.mcp.workflows.util.WorkItemProjection;
+import org.ms.mcp.workflows.util.WorkItemStreamDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -24,24 +44,49 @@ import java.util.stream.Collectors;
 @Component
 public class AdoWorkflowClient {
     
+    /** Límite de IDs por llamada impuesto por Azure DevOps */
+    private static final int MAX_BATCH_SIZE = 200;
+    
+    /** IDs por consulta WIQL de revalidación (mantiene el texto WIQL muy por debajo de su límite) */
+    private static final int MAX_WIQL_IDS = 1000;
+    
+    /** Arrays de una respuesta WIQL que se conservan (plana y de links) */
+    private static final Set<String> WIQL_ARRAYS = Set.of("workItems", "workItemRelations");
+    
+    /** Margen ante diferencias de reloj entre este servidor y Azure DevOps al revalidar */
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+    
+    /** Listados paginados: nombre en el cursor y tipos de work item de cada nivel (también en los WIQL por épica) */
+    private static final String EPICS_LISTING = "epics";
+    private static final String USER_STORIES_LISTING = "userStories";
+    private static final String EPIC_TYPES = "'Epic'";
+    private static final String USER_STORY_TYPES = "'Issue', 'User Story'";
+    
     private final AdoConfiguration config;
     private final WebClient webClient;
     private final AdoResponseParser parser;
+    private final WorkItemCache cache;
+    private final InFlightRequests inFlightRequests;
+    private final AdoCallPolicy callPolicy;
+    private final AdoClientMetrics clientMetrics;
+    private final WorkItemHierarchyIndex hierarchyIndex;
+    private final EpicTitleIndex titleIndex;
+    private final WorkItemStreamDecoder streamDecoder;
     
-    public AdoWorkflowClient(AdoConfiguration config, AdoResponseParser parser) {
+    public AdoWorkflowClient(AdoConfiguration config, WebClient adoWebClient, AdoResponseParser parser,
+                             WorkItemStreamDecoder streamDecoder, WorkItemCache cache, InFlightRequests inFlightRequests,
+                             AdoCallPolicy callPolicy, AdoClientMetrics clientMetrics,
+                             WorkItemHierarchyIndex hierarchyIndex, EpicTitleIndex titleIndex) {
         this.config = config;
+        this.webClient = adoWebClient;
         this.parser = parser;
-        this.webClient = WebClient.builder()
-                .defaultHeader(HttpHeaders.AUTHORIZATION, getBasicAuthHeader())
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
-    }
-    
-    private String getBasicAuthHeader() {
-        String auth = ":" + config.getPatToken();
-        return "Basic " + Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+        this.streamDecoder = streamDecoder;
+        this.cache = cache;
+        this.inFlightRequests = inFlightRequests;
+        this.callPolicy = callPolicy;
+        this.clientMetrics = clientMetrics;
+        this.hierarchyIndex = hierarchyIndex;
+        this.titleIndex = titleIndex;
     }
     
     // =====================================================
@@ -49,30 +94,41 @@ public class AdoWorkflowClient {
     // =====================================================
     
     /**
-     * Obtener épica por ID - Retorna DTO directamente
+     * Obtener épica por ID - Retorna DTO directamente (vacío si no existe)
      */
     public Mono<EpicInfo> getEpicById(Long epicId) {
         log.debug("Getting epic by ID: {}", epicId);
         
-        String url = config.buildWorkItemWithRelationsUrl(epicId);
-        
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .map(response -> parser.parseEpics(createSingleItemResponse(response)))
-                .map(epics -> epics.isEmpty() ? null : epics.get(0))
-                .onErrorMap(this::mapException)
+        return clientMetrics.stage(AdoClientMetrics.STAGE_EPIC,
+                        Mono.defer(() -> loadWorkItems(List.of(epicId), WorkItemProjection.EPIC)), ParsedWorkItems::size)
+                .flatMap(items -> Mono.justOrEmpty(items.getEpics().stream().findFirst()))
                 .doOnSuccess(epic -> log.debug("Retrieved epic: {}", epic != null ? epic.getId() : "null"))
                 .doOnError(error -> log.error("Error getting epic: {}", epicId, error));
     }
     
     /**
      * Buscar épicas por nombre parcial - Retorna DTOs directamente
+     * Con el índice de títulos completo se resuelve localmente (sin acentos, ordenado por relevancia);
+     * si no, vía WIQL CONTAINS, y un nombre vacío (listado completo) rellena el índice
+     * Ambos caminos devuelven el mismo orden de relevancia, pero el WIQL distingue acentos
+     * ("migracion" no encuentra "Migración") hasta que el índice está completo
      */
     public Mono<List<EpicInfo>> findEpicsByName(String partialName) {
         log.debug("Finding epics by partial name: {}", partialName);
         
+        return clientMetrics.stage(AdoClientMetrics.STAGE_EPIC_SEARCH, Mono.defer(() -> searchEpics(partialName)), List::size);
+    }
+    
+    private Mono<List<EpicInfo>> searchEpics(String partialName) {
+        if (titleIndex.isAuthoritative()) {
+            List<Long> epicIds = titleIndex.search(partialName);
+            log.debug("Resolved {} epics from the local title index", epicIds.size());
+            return loadWorkItems(epicIds, WorkItemProjection.EPIC)
+                    .map(ParsedWorkItems::getEpics)
+                    .doOnError(error -> log.error("Error finding epics by name: {}", partialName, error));
+        }
+        
+        Instant listedAt = Instant.now();
         String wiqlQuery = String.format("""
             SELECT [System.Id], [System.Title], [System.State], [System.CreatedDate]
             FROM WorkItems
@@ -82,33 +138,63 @@ public class AdoWorkflowClient {
             ORDER BY [System.CreatedDate] DESC
             """, config.getProject(), partialName);
         
-        return executeWiqlAndGetWorkItems(wiqlQuery)
-                .map(parser::parseEpics)
-                .doOnSuccess(epics -> log.debug("Found {} epics", epics.size()))
+        return executeWiqlAndGetWorkItems(wiqlQuery, WorkItemProjection.EPIC)
+                .map(ParsedWorkItems::getEpics)
+                .doOnNext(epics -> {
+                    if (partialName != null && partialName.isEmpty()) {
+                        titleIndex.replaceAll(epics, listedAt);
+                    }
+                })
+                .map(epics -> EpicTitleIndex.sortByRelevance(epics, partialName))
+                .doOnSuccess(epics -> log.debug("Found {} epics", epics != null ? epics.size() : 0))
                 .doOnError(error -> log.error("Error finding epics by name: {}", partialName, error));
     }
 
     public Mono<List<UserStoryInfo>> getUserStoriesByEpicName(String epicName) {
+        return getUserStoriesByEpicName(epicName, WorkItemProjection.USER_STORY);
+    }
+    
+    /**
+     * Obtener historias de usuario por nombre de épica con la proyección indicada
+     * (SUMMARY para herramientas de listado)
+     */
+    public Mono<List<UserStoryInfo>> getUserStoriesByEpicName(String epicName, WorkItemProjection projection) {
         log.debug("Getting user stories for epic name: {}", epicName);
         Mono<List<Long>> epicIds = findEpicsByName(epicName)
                 .flatMapMany(Flux::fromIterable)
                 .map(EpicInfo::getId)
                 .collectList();
         return epicIds
-                .flatMap(this::getUserStories)
-                .doOnSuccess(stories -> log.debug("Retrieved {} user stories for epic name: {}", stories.size(), epicName))
+                .flatMap(ids -> getUserStories(ids, projection))
+                .doOnSuccess(stories -> log.debug("Retrieved {} user stories for epic name: {}",
+                        stories != null ? stories.size() : 0, epicName))
                 .doOnError(error -> log.error("Error getting user stories for epic name: {}", epicName, error));
     }
     /**
      * Obtener historias de usuario por épica(s) - Retorna DTOs directamente
      */
     public Mono<List<UserStoryInfo>> getUserStories(List<Long> epicIds) {
+        return getUserStories(epicIds, WorkItemProjection.USER_STORY);
+    }
+    
+    /**
+     * Obtener historias de usuario por épica(s) con la proyección de campos indicada
+     */
+    public Mono<List<UserStoryInfo>> getUserStories(List<Long> epicIds, WorkItemProjection projection) {
         log.debug("Getting user stories for epic IDs: {}", epicIds);
         
         if (epicIds == null || epicIds.isEmpty()) {
             return Mono.just(List.of());
         }
         
+        Optional<List<Long>> indexedStoryIds = hierarchyIndex.freshDescendants(epicIds, WorkItemHierarchyIndex.Kind.USER_STORY);
+        if (indexedStoryIds.isPresent()) {
+            List<Long> storyIds = indexedStoryIds.get();
+            log.debug("Resolved {} user stories from local hierarchy index", storyIds.size());
+            return loadWorkItems(storyIds, projection)
+                    .map(ParsedWorkItems::getUserStories);
+        }
+        
         String epicIdsStr = epicIds.stream()
                 .map(String::valueOf)
                 .collect(Collectors.joining(", "));
@@ -118,13 +204,13 @@ public class AdoWorkflowClient {
             FROM WorkItemLinks
             WHERE [Source].[System.Id] IN (%s)
             AND [System.Links.LinkType] = 'System.LinkTypes.Hierarchy-Forward'
-            AND [Target].[System.WorkItemType] = 'Issue'
+            AND [Target].[System.WorkItemType] IN (%s)
             MODE (Recursive)
-            """, epicIdsStr);
+            """, epicIdsStr, USER_STORY_TYPES);
         
-        return executeWiqlAndGetWorkItems(wiqlQuery)
-                .map(parser::parseUserStories)
-                .doOnSuccess(stories -> log.debug("Retrieved {} user stories", stories.size()))
+        return executeWiqlAndGetWorkItems(wiqlQuery, projection)
+                .map(ParsedWorkItems::getUserStories)
+                .doOnSuccess(stories -> log.debug("Retrieved {} user stories", stories != null ? stories.size() : 0))
                 .doOnError(error -> log.error("Error getting user stories for epics: {}", epicIds, error));
     }
     
@@ -138,6 +224,14 @@ public class AdoWorkflowClient {
             return Mono.just(List.of());
         }
         
+        Optional<List<Long>> indexedTaskIds = hierarchyIndex.freshDescendants(epicIds, WorkItemHierarchyIndex.Kind.TASK);
+        if (indexedTaskIds.isPresent()) {
+            List<Long> taskIds = indexedTaskIds.get();
+            log.debug("Resolved {} tasks from local hierarchy index", taskIds.size());
+            return loadWorkItems(taskIds, WorkItemProjection.TASK)
+                    .map(ParsedWorkItems::getTasks);
+        }
+        
         String epicIdsStr = epicIds.stream()
                 .map(String::valueOf)
                 .collect(Collectors.joining(", "));
@@ -151,41 +245,233 @@ public class AdoWorkflowClient {
             MODE (Recursive)
             """, epicIdsStr);
         
-        return executeWiqlAndGetWorkItems(wiqlQuery)
-                .map(parser::parseTasks)
-                .doOnSuccess(tasks -> log.debug("Retrieved {} tasks", tasks.size()))
+        return executeWiqlAndGetWorkItems(wiqlQuery, WorkItemProjection.TASK)
+                .map(ParsedWorkItems::getTasks)
+                .doOnSuccess(tasks -> log.debug("Retrieved {} tasks", tasks != null ? tasks.size() : 0))
                 .doOnError(error -> log.error("Error getting tasks for epics: {}", epicIds, error));
     }
     
     /**
      * Obtener épica completa con sus historias y tareas
-     * UN SOLO MÉTODO que hace todo el flujo
+     * La épica y su subárbol completo se obtienen en paralelo:
+     * GET épica || (WIQL jerárquico único -> fetch de detalles deduplicado)
      */
     public Mono<EpicWorkflowResult.EpicData> getCompleteEpicWorkflow(Long epicId) {
         log.debug("Getting complete workflow for epic: {}", epicId);
         
-        return getEpicById(epicId)
-                .flatMap(epic -> {
-                    if (epic == null) {
-                        return Mono.just(EpicWorkflowResult.EpicData.builder()
-                                .epic(null)
-                                .userStories(List.of())
-                                .tasks(List.of())
-                                .build());
-                    }
-                    
-                    Mono<List<UserStoryInfo>> userStoriesMono = getUserStories(List.of(epicId));
-                    Mono<List<TaskInfo>> tasksMono = getTasks(List.of(epicId));
+        Mono<Optional<EpicInfo>> epicMono = getEpicById(epicId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        
+        return Mono.zip(epicMono, getEpicHierarchy(List.of(epicId)))
+                .map(tuple -> EpicWorkflowResult.EpicData.builder()
+                        .epic(tuple.getT1().orElse(null))
+                        .userStories(tuple.getT2().getUserStories())
+                        .tasks(tuple.getT2().getTasks())
+                        .build())
+                .doOnSuccess(result -> log.debug("Retrieved complete workflow for epic: {}", epicId))
+                .doOnError(error -> log.error("Error getting complete workflow for epic: {}", epicId, error));
+    }
+    
+    /**
+     * Obtener el workflow completo de VARIAS épicas ya conocidas
+     * Número de llamadas constante: un WIQL jerárquico para todas las épicas y
+     * un fetch de detalles por lotes; cada hijo se atribuye a su épica por los links
+     */
+    public Mono<List<EpicWorkflowResult.EpicData>> getCompleteEpicWorkflows(List<EpicInfo> epics) {
+        log.debug("Getting complete workflows for {} epics", epics.size());
+        
+        List<Long> epicIds = epics.stream().map(EpicInfo::getId).toList();
+        
+        return getEpicHierarchy(epicIds)
+                .transform(clientMetrics.stageMap(AdoClientMetrics.STAGE_ASSEMBLE, hierarchy -> {
+                    Map<Long, List<UserStoryInfo>> storiesByEpic = hierarchy.getUserStories().stream()
+                            .filter(story -> story.getParentEpicId() != null)
+                            .collect(Collectors.groupingBy(UserStoryInfo::getParentEpicId));
+                    Map<Long, List<TaskInfo>> tasksByEpic = hierarchy.getTasks().stream()
+                            .filter(task -> task.getParentEpicId() != null)
+                            .collect(Collectors.groupingBy(TaskInfo::getParentEpicId));
                     
-                    return Mono.zip(userStoriesMono, tasksMono)
-                            .map(tuple -> EpicWorkflowResult.EpicData.builder()
+                    return epics.stream()
+                            .map(epic -> EpicWorkflowResult.EpicData.builder()
                                     .epic(epic)
-                                    .userStories(tuple.getT1())
-                                    .tasks(tuple.getT2())
-                                    .build());
+                                    .userStories(storiesByEpic.getOrDefault(epic.getId(), List.of()))
+                                    .tasks(tasksByEpic.getOrDefault(epic.getId(), List.of()))
+                                    .build())
+                            .toList();
+                }, List::size))
+                .doOnSuccess(result -> log.debug("Retrieved complete workflows for {} epics", result != null ? result.size() : 0))
+                .doOnError(error -> log.error("Error getting complete workflows for epics: {}", epicIds, error));
+    }
+    
+    /**
+     * Obtener historias y tareas de las épicas con UNA consulta recursiva de links
+     * y UN fetch de detalles, particionando el resultado por tipo.
+     * Las épicas con subárbol vigente en el índice local se resuelven sin WIQL.
+     * Cada historia y tarea queda atribuida a su épica raíz (y cada tarea a su historia)
+     */
+    public Mono<ParsedWorkItems> getEpicHierarchy(List<Long> epicIds) {
+        log.debug("Getting hierarchy for epic IDs: {}", epicIds);
+        
+        if (epicIds == null || epicIds.isEmpty()) {
+            return Mono.just(ParsedWorkItems.builder().build());
+        }
+        
+        Set<Long> epicIdSet = Set.copyOf(epicIds);
+        // Los subárboles vigentes se copian ahora: una indexación posterior no altera esta respuesta
+        Map<Long, Long> indexedLinks = new LinkedHashMap<>();
+        List<Long> remoteEpics = new ArrayList<>();
+        for (Long epicId : epicIds) {
+            hierarchyIndex.freshParentLinks(epicId)
+                    .ifPresentOrElse(indexedLinks::putAll, () -> remoteEpics.add(epicId));
+        }
+        Instant queriedAt = Instant.now();
+        
+        // Solo las épicas sin subárbol vigente en el índice local requieren WIQL recursivo
+        return clientMetrics.stage(AdoClientMetrics.STAGE_HIERARCHY_LINKS, queryHierarchyLinks(remoteEpics), Map::size)
+                .flatMap(remoteLinks -> {
+                    Map<Long, Long> parentByChild = new LinkedHashMap<>(indexedLinks);
+                    parentByChild.putAll(remoteLinks);
+                    List<Long> ids = parentByChild.keySet().stream()
+                            .filter(id -> !epicIdSet.contains(id))
+                            .toList();
+                    return clientMetrics.stage(AdoClientMetrics.STAGE_WORK_ITEM_DETAILS,
+                                    Mono.defer(() -> loadWorkItems(ids, WorkItemProjection.HIERARCHY)), ParsedWorkItems::size)
+                            .doOnNext(items -> {
+                                if (!remoteEpics.isEmpty()) {
+                                    hierarchyIndex.index(remoteEpics, remoteLinks, items, queriedAt);
+                                }
+                            })
+                            .transform(clientMetrics.stageMap(AdoClientMetrics.STAGE_ASSIGN_PARENTS,
+                                    items -> assignParents(items, parentByChild, epicIdSet), ParsedWorkItems::size));
                 })
-                .doOnSuccess(result -> log.debug("Retrieved complete workflow for epic: {}", epicId))
-                .doOnError(error -> log.error("Error getting complete workflow for epic: {}", epicId, error));
+                .doOnSuccess(items -> {
+                    if (items != null) {
+                        log.debug("Retrieved {} user stories and {} tasks", items.getUserStories().size(), items.getTasks().size());
+                    }
+                })
+                .doOnError(error -> log.error("Error getting hierarchy for epics: {}", epicIds, error));
+    }
+
+    /**
+     * Sincronización incremental: épicas, historias y tareas del proyecto modificadas
+     * después de la marca de agua, como máximo top, en orden de (System.ChangedDate, System.Id).
+     * afterId desempata los items modificados en el mismo instante que la marca: se devuelven
+     * los de ID mayor, de modo que una pasada truncada continúa donde se quedó la anterior.
+     * Se piden siempre a ADO (sin pasar por la caché) y se guardan en ella
+     */
+    public Mono<ParsedWorkItems> getWorkItemsChangedSince(Instant watermark, long afterId, int top) {
+        String since = DateTimeFormatter.ISO_INSTANT.format(watermark.truncatedTo(ChronoUnit.MILLIS));
+        log.debug("Getting work items changed since {} after ID {}", since, afterId);
+
+        String wiqlQuery = String.format("""
+            SELECT [System.Id]
+            FROM WorkItems
+            WHERE [System.TeamProject] = '%s'
+            AND [System.WorkItemType] IN ('Epic', 'Issue', 'User Story', 'Task')
+            AND ([System.ChangedDate] > '%s' OR ([System.ChangedDate] = '%s' AND [System.Id] > %d))
+            ORDER BY [System.ChangedDate] ASC, [System.Id] ASC
+            """, config.getProject(), since, since, afterId);
+
+        return executeWiqlQuery(wiqlQuery, config.buildWiqlTimePrecisionUrl(top))
+                .map(parser::extractWorkItemIds)
+                .flatMap(ids -> fetchWorkItems(ids, WorkItemProjection.ALL))
+                .doOnSuccess(items -> log.debug("Retrieved {} work items changed since {}", items != null ? items.size() : 0, since))
+                .doOnError(error -> log.error("Error getting work items changed since {}", since, error));
+    }
+
+    // =====================================================
+    // LISTADOS PAGINADOS
+    // =====================================================
+    
+    /**
+     * Página del listado completo de épicas del proyecto, en orden de ID
+     * Con el índice de títulos completo se resuelve localmente; si no, con un WIQL por página
+     */
+    public Mono<PagedResult<EpicInfo>> listEpics(int pageSize, String cursor) {
+        return Mono.defer(() -> {
+            int size = clampPageSize(pageSize);
+            long afterId = PageCursor.decode(EPICS_LISTING, cursor);
+            log.debug("Listing epics after ID {} (page size {})", afterId, size);
+            Mono<List<Long>> ids = titleIndex.isAuthoritative()
+                    ? Mono.just(titleIndex.idsAfter(afterId, size + 1))
+                    : queryIdsAfter(EPIC_TYPES, afterId, size + 1);
+            return ids.flatMap(pageIds -> loadPage(EPICS_LISTING, pageIds, size, WorkItemProjection.EPIC, ParsedWorkItems::getEpics));
+        }).doOnError(error -> log.error("Error listing epics", error));
+    }
+    
+    /**
+     * Página del listado completo de historias de usuario del proyecto, en orden de ID, con la proyección indicada
+     */
+    public Mono<PagedResult<UserStoryInfo>> listUserStories(int pageSize, String cursor, WorkItemProjection projection) {
+        return Mono.defer(() -> {
+            int size = clampPageSize(pageSize);
+            long afterId = PageCursor.decode(USER_STORIES_LISTING, cursor);
+            log.debug("Listing user stories after ID {} (page size {})", afterId, size);
+            return queryIdsAfter(USER_STORY_TYPES, afterId, size + 1)
+                    .flatMap(pageIds -> loadPage(USER_STORIES_LISTING, pageIds, size, projection, ParsedWorkItems::getUserStories));
+        }).doOnError(error -> log.error("Error listing user stories", error));
+    }
+    
+    /**
+     * Recorre el listado paginado de épicas completo y deja el índice de títulos autoritativo
+     * Devuelve el número de épicas listadas
+     */
+    public Mono<Integer> indexAllEpics() {
+        return Mono.defer(() -> {
+            Instant listedAt = Instant.now();
+            int pageSize = config.getTools().getMaxPageSize();
+            Set<Long> listed = new HashSet<>();
+            return listEpics(pageSize, null)
+                    .expand(page -> page.isHasMore() ? listEpics(pageSize, page.getNextCursor()) : Mono.empty())
+                    .doOnNext(page -> {
+                        titleIndex.putAll(page.getItems());
+                        page.getItems().forEach(epic -> listed.add(epic.getId()));
+                    })
+                    .then(Mono.fromSupplier(() -> {
+                        titleIndex.completeListing(listed, listedAt);
+                        return listed.size();
+                    }));
+        });
+    }
+    
+    /**
+     * Paginación por conjunto de claves: IDs mayores que el último entregado, ordenados por ID y acotados con $top,
+     * de modo que cada página cuesta lo mismo y nunca alcanza el límite de 20.000 resultados de WIQL
+     */
+    private Mono<List<Long>> queryIdsAfter(String workItemTypes, long afterId, int top) {
+        String wiqlQuery = String.format("""
+            SELECT [System.Id]
+            FROM WorkItems
+            WHERE [System.TeamProject] = '%s'
+            AND [System.WorkItemType] IN (%s)
+            AND [System.Id] > %d
+            ORDER BY [System.Id] ASC
+            """, config.getProject(), workItemTypes, afterId);
+    
+        return executeWiqlQuery(wiqlQuery, config.buildWiqlUrl(top))
+                .map(parser::extractWorkItemIds);
+    }
+    
+    /**
+     * Carga los primeros pageSize IDs; un ID de más indica que hay página siguiente
+     * El cursor se toma del último ID de la página, aunque ese work item ya no exista
+     */
+    private <T> Mono<PagedResult<T>> loadPage(String listing, List<Long> ids, int pageSize, WorkItemProjection projection,
+                                              Function<ParsedWorkItems, List<T>> select) {
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        return loadWorkItems(pageIds, projection)
+                .map(items -> PagedResult.<T>builder()
+                        .items(select.apply(items))
+                        .pageSize(pageSize)
+                        .hasMore(hasMore)
+                        .nextCursor(hasMore ? PageCursor.encode(listing, pageIds.get(pageIds.size() - 1)) : null)
+                        .build());
+    }
+    
+    private int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, config.getTools().getMaxPageSize()));
     }
     
     // =====================================================
@@ -193,72 +479,294 @@ public class AdoWorkflowClient {
     // =====================================================
     
     /**
-     * Ejecuta WIQL y obtiene los work items completos automáticamente
+     * Links jerárquicos (hijo -> padre) del subárbol de las épicas vía WIQL recursivo
      */
-    private Mono<JsonNode> executeWiqlAndGetWorkItems(String wiqlQuery) {
+    private Mono<Map<Long, Long>> queryHierarchyLinks(List<Long> epicIds) {
+        if (epicIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        
+        String epicIdsStr = epicIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(", "));
+        
+        String wiqlQuery = String.format("""
+            SELECT [System.Id], [System.WorkItemType]
+            FROM WorkItemLinks
+            WHERE [Source].[System.Id] IN (%s)
+            AND [System.Links.LinkType] = 'System.LinkTypes.Hierarchy-Forward'
+            AND [Target].[System.WorkItemType] IN ('Issue', 'User Story', 'Task')
+            MODE (Recursive)
+            """, epicIdsStr);
+        
         return executeWiqlQuery(wiqlQuery)
-                .flatMap(wiqlResponse -> {
-                    List<Long> workItemIds = parser.extractWorkItemIds(wiqlResponse);
-                    if (workItemIds.isEmpty()) {
-                        return Mono.just(createEmptyWorkItemsResponse());
-                    }
-                    return getWorkItemsDetails(workItemIds);
-                });
+                .map(parser::extractHierarchyLinks);
+    }
+    
+    /**
+     * Ejecuta WIQL y obtiene los work items con los campos de la proyección indicada
+     */
+    private Mono<ParsedWorkItems> executeWiqlAndGetWorkItems(String wiqlQuery, WorkItemProjection projection) {
+        return executeWiqlQuery(wiqlQuery)
+                .flatMap(wiqlResponse -> loadWorkItems(parser.extractWorkItemIds(wiqlResponse), projection));
     }
     
     /**
      * Ejecutar consulta WIQL básica
      */
     private Mono<JsonNode> executeWiqlQuery(String wiqlQuery) {
+        return executeWiqlQuery(wiqlQuery, config.buildWiqlUrl());
+    }
+    
+    /**
+     * Las consultas idénticas concurrentes comparten una sola petición (con reintentos y hedging de AdoCallPolicy)
+     * La respuesta se decodifica en streaming y se reduce a los IDs (workItems) y links
+     * (workItemRelations), descartando URLs y demás campos, sea cual sea su tamaño
+     */
+    private Mono<JsonNode> executeWiqlQuery(String wiqlQuery, String url) {
         String requestBody = String.format("{\"query\": \"%s\"}", 
                 wiqlQuery.replace("\"", "\\\"").replace("\n", "\\n"));
         
-        return webClient.post()
-                .uri(config.buildWiqlUrl())
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .onErrorMap(this::mapException);
+        return inFlightRequests.coalesce("wiql:" + url + ":" + InFlightRequests.normalize(wiqlQuery),
+                () -> callPolicy.execute("wiql", () -> {
+                            ParseClock clock = new ParseClock();
+                            return webClient.post()
+                                    .uri(url)
+                                    .bodyValue(requestBody)
+                                    .retrieve()
+                                    .bodyToFlux(DataBuffer.class)
+                                    .transform(body -> streamDecoder.decodeArrays(body, WIQL_ARRAYS, clock))
+                                    .collect(this::createWiqlResponse,
+                                            (response, element) -> clock.time(() -> addWiqlElement(response, element)))
+                                    .map(JsonNode.class::cast)
+                                    .transform(parsed -> clientMetrics.recordParse(AdoClientMetrics.WIQL, clock, parsed,
+                                            response -> response.get("workItems").size() + response.get("workItemRelations").size()));
+                        })
+                        .onErrorMap(this::mapException));
+    }
+    
+    private ObjectNode createWiqlResponse() {
+        ObjectNode response = JsonNodeFactory.instance.objectNode();
+        response.putArray("workItems");
+        response.putArray("workItemRelations");
+        return response;
+    }
+    
+    private void addWiqlElement(ObjectNode response, JsonNode element) {
+        if (element.has("target")) {
+            ObjectNode relation = ((ArrayNode) response.get("workItemRelations")).addObject();
+            JsonNode source = element.get("source");
+            if (source != null && source.has("id")) {
+                relation.putObject("source").put("id", source.get("id").asLong());
+            }
+            relation.putObject("target").put("id", element.get("target").path("id").asLong());
+        } else if (element.has("id")) {
+            ((ArrayNode) response.get("workItems")).addObject().put("id", element.get("id").asLong());
+        }
+    }
+    
+    /**
+     * Carga work items por ID pasando por la caché:
+     * - IDs no cacheados: se piden a ADO
+     * - IDs cacheados con validación vencida: un WIQL devuelve solo los modificados
+     *   desde su última validación, y solo esos se vuelven a pedir
+     * El resultado respeta el orden de los IDs solicitados; los hits se recortan a la proyección pedida
+     */
+    private Mono<ParsedWorkItems> loadWorkItems(List<Long> ids, WorkItemProjection projection) {
+        if (ids.isEmpty()) {
+            return Mono.just(ParsedWorkItems.builder().build());
+        }
+        if (!cache.isEnabled()) {
+            return fetchWorkItems(ids, projection);
+        }
+        
+        Instant now = Instant.now();
+        Map<Long, WorkItemCache.CachedWorkItem> cached = cache.getAll(ids);
+        List<Long> missing = ids.stream().filter(id -> !cached.containsKey(id)).toList();
+        List<Long> toRevalidate = cached.entrySet().stream()
+                .filter(entry -> cache.needsRevalidation(entry.getValue(), now))
+                .map(Map.Entry::getKey)
+                .toList();
+        Instant watermark = toRevalidate.stream()
+                .map(id -> cache.validatedAt(cached.get(id)))
+                .min(Comparator.naturalOrder())
+                .orElse(now);
+        
+        log.debug("Work item cache: {} hits, {} misses, {} to revalidate", cached.size(), missing.size(), toRevalidate.size());
+        
+        return findChangedSince(toRevalidate, watermark)
+                .flatMap(changed -> {
+                    Set<Long> changedIds = Set.copyOf(changed);
+                    cache.invalidate(changedIds);
+                    cache.markValidated(toRevalidate.stream().filter(id -> !changedIds.contains(id)).toList(), now);
+                    
+                    List<Long> toFetch = new ArrayList<>(missing);
+                    toFetch.addAll(changedIds);
+                    
+                    return fetchWorkItems(toFetch, projection)
+                            .map(fetched -> {
+                                Map<Long, Object> byId = new HashMap<>();
+                                cached.forEach((id, entry) -> {
+                                    if (!changedIds.contains(id)) {
+                                        byId.put(id, projection.restrict(entry.item()));
+                                    }
+                                });
+                                fetched.getEpics().forEach(epic -> byId.put(epic.getId(), epic));
+                                fetched.getUserStories().forEach(story -> byId.put(story.getId(), story));
+                                fetched.getTasks().forEach(task -> byId.put(task.getId(), task));
+                                
+                                ParsedWorkItems result = ParsedWorkItems.builder().build();
+                                ids.forEach(id -> result.add(byId.get(id)));
+                                return result;
+                            });
+                });
+    }
+    
+    /**
+     * Obtiene y parsea work items desde ADO, guardándolos en caché y en el índice de títulos
+     */
+    private Mono<ParsedWorkItems> fetchWorkItems(List<Long> ids, WorkItemProjection projection) {
+        if (ids.isEmpty()) {
+            return Mono.just(ParsedWorkItems.builder().build());
+        }
+        
+        Instant fetchedAt = Instant.now();
+        return getWorkItemsDetails(ids, projection)
+                .doOnNext(items -> {
+                    if (cache.isEnabled()) {
+                        cache.put(items, projection, fetchedAt);
+                    }
+                    titleIndex.putAll(items.getEpics());
+                });
+    }
+    
+    /**
+     * IDs (de entre los dados) cuyo System.ChangedDate es posterior a la marca de agua
+     */
+    private Mono<List<Long>> findChangedSince(List<Long> ids, Instant watermark) {
+        if (ids.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        
+        String since = DateTimeFormatter.ISO_INSTANT.format(watermark.minus(CLOCK_SKEW).truncatedTo(ChronoUnit.SECONDS));
+        int concurrency = Math.max(1, config.getApi().getBatch().getConcurrency());
+        
+        return Flux.fromIterable(partition(ids, MAX_WIQL_IDS))
+                .flatMap(chunk -> {
+                    String wiqlQuery = String.format("""
+                        SELECT [System.Id]
+                        FROM WorkItems
+                        WHERE [System.Id] IN (%s)
+                        AND [System.ChangedDate] > '%s'
+                        """, chunk.stream().map(String::valueOf).collect(Collectors.joining(", ")), since);
+                    return executeWiqlQuery(wiqlQuery, config.buildWiqlTimePrecisionUrl())
+                            .map(parser::extractWorkItemIds);
+                }, concurrency)
+                .flatMapIterable(changed -> changed)
+                .collectList();
     }
     
     /**
-     * Obtener detalles de work items por sus IDs
+     * Obtener detalles de work items por sus IDs, ya parseados a DTOs
+     * Divide los IDs en lotes (máximo 200 por llamada en ADO), los ejecuta con
+     * concurrencia acotada contra workitemsbatch y combina los resultados en orden
      */
-    private Mono<JsonNode> getWorkItemsDetails(List<Long> workItemIds) {
+    private Mono<ParsedWorkItems> getWorkItemsDetails(List<Long> workItemIds, WorkItemProjection projection) {
         if (workItemIds.isEmpty()) {
-            return Mono.just(createEmptyWorkItemsResponse());
+            return Mono.just(ParsedWorkItems.builder().build());
         }
         
-        String idsStr = workItemIds.stream()
-                .map(String::valueOf)
-                .collect(Collectors.joining(","));
-        
-        String url = String.format("%s?ids=%s&api-version=%s", 
-                config.buildWorkItemsUrl(), 
-                idsStr, 
-                config.getApi().getVersions().getWorkItems());
-        
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .onErrorMap(this::mapException);
-    }
-    
-    private JsonNode createSingleItemResponse(JsonNode singleItem) {
-        com.fasterxml.jackson.databind.node.ObjectNode response = 
-                com.fasterxml.jackson.databind.node.JsonNodeFactory.instance.objectNode();
-        com.fasterxml.jackson.databind.node.ArrayNode valueArray = 
-                com.fasterxml.jackson.databind.node.JsonNodeFactory.instance.arrayNode();
-        valueArray.add(singleItem);
-        response.set("value", valueArray);
-        return response;
+        AdoConfiguration.Api.Batch batch = config.getApi().getBatch();
+        int chunkSize = Math.max(1, Math.min(batch.getChunkSize(), MAX_BATCH_SIZE));
+        int concurrency = Math.max(1, batch.getConcurrency());
+        List<List<Long>> chunks = partition(workItemIds, chunkSize);
+        
+        log.debug("Fetching {} work items in {} batches (concurrency {})", workItemIds.size(), chunks.size(), concurrency);
+        
+        return Flux.fromIterable(chunks)
+                .flatMapSequential(chunk -> getWorkItemsBatch(chunk, projection), concurrency)
+                .collect(() -> ParsedWorkItems.builder().build(), (merged, chunkItems) -> {
+                    merged.getEpics().addAll(chunkItems.getEpics());
+                    merged.getUserStories().addAll(chunkItems.getUserStories());
+                    merged.getTasks().addAll(chunkItems.getTasks());
+                });
+    }
+    
+    /**
+     * Obtener un lote de work items (hasta 200) vía POST workitemsbatch
+     * Solo se solicitan los campos de la proyección; lotes idénticos concurrentes se comparten
+     * Los fallos transitorios se reintentan (AdoCallPolicy); cada intento vuelve a parsear desde cero
+     * La respuesta se decodifica en streaming: cada elemento de "value" pasa a DTO según llega
+     */
+    private Mono<ParsedWorkItems> getWorkItemsBatch(List<Long> workItemIds, WorkItemProjection projection) {
+        ObjectNode requestBody = JsonNodeFactory.instance.objectNode();
+        ArrayNode ids = requestBody.putArray("ids");
+        workItemIds.forEach(ids::add);
+        ArrayNode fields = requestBody.putArray("fields");
+        projection.getFields().forEach(fields::add);
+        requestBody.put("errorPolicy", "omit");
+        
+        return inFlightRequests.coalesce("batch:" + projection + ":" + workItemIds,
+                () -> callPolicy.execute("batch", () -> {
+                            ParseClock clock = new ParseClock();
+                            return webClient.post()
+                                    .uri(config.buildWorkItemsBatchUrl())
+                                    .bodyValue(requestBody)
+                                    .retrieve()
+                                    .bodyToFlux(DataBuffer.class)
+                                    .transform(body -> streamDecoder.decodeArray(body, "value", clock))
+                                    .collect(() -> ParsedWorkItems.builder().build(),
+                                            (items, workItem) -> clock.time(() -> items.add(parser.parseWorkItem(workItem))))
+                                    .transform(parsed -> clientMetrics.recordParse(AdoClientMetrics.WORK_ITEMS_BATCH, clock, parsed,
+                                            ParsedWorkItems::size));
+                        })
+                        .onErrorMap(this::mapException));
     }
     
-    private JsonNode createEmptyWorkItemsResponse() {
-        return com.fasterxml.jackson.databind.node.JsonNodeFactory.instance.objectNode()
-                .put("queryType", "flat")
-                .set("workItems", com.fasterxml.jackson.databind.node.JsonNodeFactory.instance.arrayNode());
+    /**
+     * Completa parentEpicId / parentUserStoryId a partir de los links jerárquicos
+     * Los DTOs pueden venir de la caché o de una petición compartida con otras llamadas:
+     * los padres se asignan sobre copias propias de esta llamada, nunca sobre los originales
+     */
+    private ParsedWorkItems assignParents(ParsedWorkItems items, Map<Long, Long> parentByChild, Set<Long> epicIds) {
+        Set<Long> storyIds = items.getUserStories().stream()
+                .map(UserStoryInfo::getId)
+                .collect(Collectors.toSet());
+        
+        ParsedWorkItems result = ParsedWorkItems.builder()
+                .epics(new ArrayList<>(items.getEpics()))
+                .build();
+        items.getUserStories().forEach(story -> result.getUserStories().add(story.toBuilder()
+                .parentEpicId(findRootEpic(story.getId(), parentByChild, epicIds))
+                .build()));
+        items.getTasks().forEach(task -> {
+            Long parentId = parentByChild.get(task.getId());
+            result.getTasks().add(task.toBuilder()
+                    .parentUserStoryId(storyIds.contains(parentId) ? parentId : null)
+                    .parentEpicId(findRootEpic(task.getId(), parentByChild, epicIds))
+                    .build());
+        });
+        return result;
+    }
+    
+    private Long findRootEpic(Long id, Map<Long, Long> parentByChild, Set<Long> epicIds) {
+        Long current = parentByChild.get(id);
+        // El límite de saltos protege ante ciclos en datos inconsistentes
+        for (int depth = 0; current != null && depth < parentByChild.size(); depth++) {
+            if (epicIds.contains(current)) {
+                return current;
+            }
+            current = parentByChild.get(current);
+        }
+        return null;
+    }
+    
+    private static List<List<Long>> partition(List<Long> ids, int size) {
+        List<List<Long>> chunks = new ArrayList<>((ids.size() + size - 1) / size);
+        for (int from = 0; from < ids.size(); from += size) {
+            chunks.add(ids.subList(from, Math.min(from + size, ids.size())));
+        }
+        return chunks;
     }
     
     private Throwable mapException(Throwable error) {
@@ -268,6 +776,7 @@ public class AdoWorkflowClient {
                 case 403 -> "Sin permisos suficientes para Work Items";
                 case 404 -> String.format("Proyecto '%s' no encontrado", config.getProject());
                 case 400 -> "Consulta WIQL inválida: " + webEx.getResponseBodyAsString();
+                case 429 -> "Límite de peticiones de Azure DevOps alcanzado, reintentos agotados";
                 default -> String.format("Error API Azure DevOps (HTTP %d)", webEx.getStatusCode().value());
             };
             return new AdoWorkflowException(message, webEx);
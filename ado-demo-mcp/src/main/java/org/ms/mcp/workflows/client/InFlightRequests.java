@@ -0,0 +1,141 @@
+package org.ms.mcp.workflows.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación de peticiones en vuelo (single-flight)
+ * Los llamadores concurrentes con la misma clave comparten una única petición hacia ADO;
+ * la entrada se elimina antes de entregar el resultado, de modo que no actúa como caché,
+ * y quien ya se había unido recibe el resultado aunque se suscriba después de emitido
+ * La petición compartida se cancela cuando cancela el último llamador
+ */
+@Slf4j
+@Component
+public class InFlightRequests {
+
+    private final Map<String, Flight<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public InFlightRequests(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("ado.client.coalesced")
+                .description("Peticiones a Azure DevOps resueltas con una petición idéntica ya en vuelo")
+                .register(meterRegistry);
+        meterRegistry.gauge("ado.client.in.flight.keys", inFlight, Map::size);
+    }
+
+    /**
+     * La petición se suscribe con el contexto del primer llamador (AdoCallStats, ToolDeadline...)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(String key, Supplier<Mono<T>> upstream) {
+        return Mono.deferContextual(context -> {
+            boolean[] created = {false};
+            Flight<T> flight = (Flight<T>) inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return new Flight<T>(k);
+            });
+            if (!flight.join()) {
+                // Cancelada por sus llamadores entre la búsqueda y la unión: se abre otra
+                return coalesce(key, upstream);
+            }
+            if (created[0]) {
+                flight.start(upstream.get(), context);
+            } else {
+                coalesced.increment();
+                log.debug("Coalesced in-flight request: {}", key);
+            }
+            return flight.result.asMono().doOnCancel(flight::leave);
+        });
+    }
+
+    /**
+     * Número de claves en vuelo
+     */
+    int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * Normaliza una consulta WIQL para usarla como clave (espacios y saltos de línea)
+     */
+    public static String normalize(String query) {
+        return query.strip().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Una petición compartida: su resultado (reproducido a cada llamador) y cuántos llamadores la esperan
+     */
+    private final class Flight<T> {
+
+        private final String key;
+        private final Sinks.One<T> result = Sinks.one();
+        private final Disposable.Swap connection = Disposables.swap();
+        private int callers;
+        private boolean done;
+        private boolean cancelled;
+
+        private Flight(String key) {
+            this.key = key;
+        }
+
+        synchronized boolean join() {
+            if (cancelled) {
+                return false;
+            }
+            callers++;
+            return true;
+        }
+
+        /**
+         * Un llamador cancela; con el último se cancela la petición y se libera la clave
+         */
+        void leave() {
+            synchronized (this) {
+                if (done || --callers > 0) {
+                    return;
+                }
+                cancelled = true;
+            }
+            inFlight.remove(key, this);
+            connection.dispose();
+        }
+
+        void start(Mono<T> source, ContextView context) {
+            connection.update(source.contextWrite(context).subscribe(
+                    value -> {
+                        finish();
+                        result.tryEmitValue(value);
+                    },
+                    error -> {
+                        finish();
+                        result.tryEmitError(error);
+                    },
+                    () -> {
+                        finish();
+                        result.tryEmitEmpty();
+                    }));
+        }
+
+        /**
+         * La clave se libera antes de emitir: ningún llamador nuevo se une a un resultado ya entregado
+         */
+        private void finish() {
+            synchronized (this) {
+                done = true;
+            }
+            inFlight.remove(key, this);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.ms.mcp.workflows.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Ventana deslizante con las últimas latencias de un tipo de petición
+ * Permite estimar un percentil (p.ej. p95) sin histogramas: la ventana es pequeña
+ * y ordenar una copia al consultarla es barato
+ */
+class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    LatencyTracker(int window) {
+        this.samples = new long[window];
+    }
+
+    synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Percentil (0..1) de las latencias de la ventana; Duration.ZERO si no hay muestras
+     */
+    synchronized Duration percentile(double percentile) {
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(index, count - 1))]);
+    }
+}
@@ -0,0 +1,48 @@
+package org.ms.mcp.workflows.client;
+
+import org.ms.mcp.workflows.dto.EpicWorkflowResult;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Desglose por etapas de un flujo (una llamada a herramienta), propagado por el Context de Reactor
+ * Por etapa: nanosegundos acumulados, elementos procesados y ejecuciones, en orden de primera aparición
+ * Las etapas pueden solaparse (épica y jerarquía van en paralelo) o anidarse (parse dentro de
+ * workItemDetails), por lo que su suma no tiene por qué coincidir con executionTimeMs
+ */
+public final class WorkflowStages {
+    
+    private static final Object KEY = WorkflowStages.class;
+    
+    private final Map<String, EpicWorkflowResult.StageTiming> stages = new LinkedHashMap<>();
+    
+    public static Function<Context, Context> attach(WorkflowStages stages) {
+        return context -> context.put(KEY, stages);
+    }
+    
+    static Optional<WorkflowStages> from(ContextView context) {
+        return context.getOrEmpty(KEY);
+    }
+    
+    synchronized void record(String stage, long nanos, int items) {
+        EpicWorkflowResult.StageTiming timing = stages.computeIfAbsent(stage, key -> new EpicWorkflowResult.StageTiming());
+        timing.setDurationNanos(timing.getDurationNanos() + nanos);
+        timing.setItems(timing.getItems() + items);
+        timing.setExecutions(timing.getExecutions() + 1);
+    }
+    
+    /**
+     * Copia del desglose actual (las entradas no se comparten con el registro)
+     */
+    public synchronized Map<String, EpicWorkflowResult.StageTiming> snapshot() {
+        Map<String, EpicWorkflowResult.StageTiming> copy = new LinkedHashMap<>();
+        stages.forEach((stage, timing) -> copy.put(stage, new EpicWorkflowResult.StageTiming(
+                timing.getDurationNanos(), timing.getItems(), timing.getExecutions())));
+        return copy;
+    }
+}
@@ -12,12 +12,13 @@ import java.time.LocalDateTime;
  * Extiende la información básica con campos específicos de épicas
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EpicInfo {
     
     private Long id;
+    private String teamProject;
     private String title;
     private String state;
     private String description;
@@ -6,7 +6,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * DTO UNIFICADO que encapsula el resultado de workflows de épica
@@ -135,6 +138,8 @@ public class EpicWorkflowResult {
     
     /**
      * Metadatos adicionales del workflow
+     * Con hasErrors el resultado es parcial: missingEpicIds son las épicas encontradas
+     * cuyas historias y tareas no se pudieron obtener (por error o por tiempo límite)
      */
     @Data
     @Builder
@@ -142,8 +147,34 @@ public class EpicWorkflowResult {
     @AllArgsConstructor
     public static class WorkflowMetadata {
         private Long executionTimeMs;
+        
+        // Peticiones HTTP reales a ADO del flujo (reintentos incluidos; 0 si todo salió de caché)
         private int apiCallsCount;
+        @Builder.Default
+        private Map<String, Integer> apiCallsByEndpoint = new TreeMap<>();
+        private long responseBytes;
+        private long parseTimeNanos;
+        
+        // Desglose por etapa del flujo (nanosegundos, elementos procesados, ejecuciones)
+        @Builder.Default
+        private Map<String, StageTiming> stages = new LinkedHashMap<>();
+        
         private boolean hasErrors;
         private String errorMessage;
+        
+        @Builder.Default
+        private List<Long> missingEpicIds = new ArrayList<>();
+    }
+    
+    /**
+     * Tiempo acumulado de una etapa del flujo
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageTiming {
+        private long durationNanos;
+        private int items;
+        private int executions;
     }
-}
\ No newline at end of file
+}
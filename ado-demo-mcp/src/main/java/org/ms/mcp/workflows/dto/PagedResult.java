@@ -0,0 +1,27 @@
+package org.ms.mcp.workflows.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página de un listado de work items en orden de ID
+ * nextCursor es opaco: se devuelve tal cual para pedir la página siguiente (null en la última)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PagedResult<T> {
+    
+    @Builder.Default
+    private List<T> items = new ArrayList<>();
+    
+    private int pageSize;
+    private boolean hasMore;
+    private String nextCursor;
+}
@@ -0,0 +1,46 @@
+package org.ms.mcp.workflows.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de parsear una única respuesta de detalles de work items
+ * particionada por tipo (épicas, historias y tareas)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParsedWorkItems {
+    
+    @Builder.Default
+    private List<EpicInfo> epics = new ArrayList<>();
+    
+    @Builder.Default
+    private List<UserStoryInfo> userStories = new ArrayList<>();
+    
+    @Builder.Default
+    private List<TaskInfo> tasks = new ArrayList<>();
+    
+    /**
+     * Agrega un DTO de cualquier tipo a la lista que le corresponde
+     */
+    public void add(Object item) {
+        if (item instanceof EpicInfo epic) {
+            epics.add(epic);
+        } else if (item instanceof UserStoryInfo story) {
+            userStories.add(story);
+        } else if (item instanceof TaskInfo task) {
+            tasks.add(task);
+        }
+    }
+    
+    public int size() {
+        return epics.size() + userStories.size() + tasks.size();
+    }
+}
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * Extiende la información básica con campos específicos de tareas
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TaskInfo {
@@ -32,6 +32,9 @@ public class TaskInfo {
     private Double completedWork;
     private String activity;
     private String priority;
+    // Padre directo tal como lo devuelve System.Parent (puede no ser una historia)
+    private Long parentId;
+    // Historia y épica, derivadas de los links jerárquicos
     private Long parentUserStoryId;
     private Long parentEpicId;
     
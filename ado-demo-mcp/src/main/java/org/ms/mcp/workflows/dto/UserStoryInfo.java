@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * Extiende la información básica con campos específicos de historias
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserStoryInfo {
@@ -31,6 +31,9 @@ public class UserStoryInfo {
     private Integer storyPoints;
     private String priority;
     private String riskLevel;
+    // Padre directo tal como lo devuelve System.Parent (puede ser una Feature u otro item)
+    private Long parentId;
+    // Épica raíz, derivada de los links jerárquicos
     private Long parentEpicId;
     
     /**
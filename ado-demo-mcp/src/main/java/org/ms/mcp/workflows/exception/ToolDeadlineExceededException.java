@@ -0,0 +1,13 @@
+package org.ms.mcp.workflows.exception;
+
+import java.time.Duration;
+
+/**
+ * Se agotó el tiempo límite de una llamada a herramienta MCP antes de completar el flujo
+ */
+public class ToolDeadlineExceededException extends AdoWorkflowException {
+    
+    public ToolDeadlineExceededException(Duration budget) {
+        super(String.format("Tiempo límite de la herramienta agotado (%d ms)", budget.toMillis()));
+    }
+}
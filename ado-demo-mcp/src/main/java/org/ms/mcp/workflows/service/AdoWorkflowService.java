@@ -2,12 +2,13 @@ package org.ms.mcp.workflows.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.workflows.client.AdoCallStats;
 import org.ms.mcp.workflows.client.AdoWorkflowClient;
+import org.ms.mcp.workflows.client.WorkflowStages;
 import org.ms.mcp.workflows.dto.*;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,30 +27,23 @@ import java.util.List;
 public class AdoWorkflowService {
     
     private final AdoWorkflowClient simplifiedClient;
+    private final EpicWorkflowAssembler assembler;
     
     /**
      * FLUJO 1 SIMPLIFICADO: Búsqueda por Epic ID específica
-     * Una sola llamada al simplified client hace todo el trabajo
+     * Épica y subárbol en paralelo, acotados por el ToolDeadline del contexto
      */
     public Mono<EpicWorkflowResult> getWorkflowById(Long epicId) {
         log.info("Executing workflow for Epic ID: {}", epicId);
         long startTime = System.currentTimeMillis();
         
-        return simplifiedClient.getCompleteEpicWorkflow(epicId)
-                .map(epicData -> {
-                    long executionTime = System.currentTimeMillis() - startTime;
-                    
-                    return EpicWorkflowResult.builder()
-                            .searchType("BY_ID")
-                            .searchValue(epicId.toString())
-                            .epics(epicData.getEpic() != null ? List.of(epicData) : List.of())
-                            .metadata(EpicWorkflowResult.WorkflowMetadata.builder()
-                                    .executionTimeMs(executionTime)
-                                    .apiCallsCount(3) // epic + stories + tasks
-                                    .hasErrors(false)
-                                    .build())
-                            .build();
-                })
+        AdoCallStats stats = new AdoCallStats();
+        WorkflowStages stages = new WorkflowStages();
+        
+        return assembler.byId(epicId)
+                .map(outcome -> outcome.toResult("BY_ID", epicId.toString(), startTime, stats, stages))
+                .contextWrite(AdoCallStats.attach(stats))
+                .contextWrite(WorkflowStages.attach(stages))
                 .doOnSuccess(result -> log.info("Workflow completed for Epic ID: {} with {} epics in {}ms", 
                         epicId, result.getTotalEpics(), result.getMetadata().getExecutionTimeMs()))
                 .doOnError(error -> log.error("Error executing workflow for Epic ID: {}", epicId, error));
@@ -57,43 +51,20 @@ public class AdoWorkflowService {
     
     /**
      * FLUJO 2 SIMPLIFICADO: Búsqueda por nombre parcial de épica
-     * Busca épicas y luego obtiene workflows completos usando simplified client
+     * Busca épicas y luego obtiene sus workflows con un número constante de llamadas
+     * Ante un fallo o el tiempo límite devuelve las épicas completadas y las que faltan
      */
     public Mono<EpicWorkflowResult> getWorkflowByPartialName(String partialName) {
         log.info("Executing workflow for Epic partial name: {}", partialName);
         long startTime = System.currentTimeMillis();
         
-        return simplifiedClient.findEpicsByName(partialName)
-                .flatMap(epics -> {
-                    if (epics.isEmpty()) {
-                        return Mono.just(createEmptyResult("BY_PARTIAL_NAME", partialName, startTime, 1));
-                    }
-                    
-                    // Para cada épica encontrada, obtener su workflow completo usando simplified client
-                    List<Mono<EpicWorkflowResult.EpicData>> workflows = epics.stream()
-                            .map(epic -> simplifiedClient.getCompleteEpicWorkflow(epic.getId()))
-                            .toList();
-                    
-                    return Mono.zip(workflows, epicDataArray -> {
-                        long executionTime = System.currentTimeMillis() - startTime;
-                        
-                        List<EpicWorkflowResult.EpicData> epicDataList = new ArrayList<>();
-                        for (Object epicData : epicDataArray) {
-                            epicDataList.add((EpicWorkflowResult.EpicData) epicData);
-                        }
-                        
-                        return EpicWorkflowResult.builder()
-                                .searchType("BY_PARTIAL_NAME")
-                                .searchValue(partialName)
-                                .epics(epicDataList)
-                                .metadata(EpicWorkflowResult.WorkflowMetadata.builder()
-                                        .executionTimeMs(executionTime)
-                                        .apiCallsCount(1 + epics.size() * 3) // find epics + (epic+stories+tasks per epic)
-                                        .hasErrors(false)
-                                        .build())
-                                .build();
-                    });
-                })
+        AdoCallStats stats = new AdoCallStats();
+        WorkflowStages stages = new WorkflowStages();
+        
+        return assembler.byName(partialName)
+                .map(outcome -> outcome.toResult("BY_PARTIAL_NAME", partialName, startTime, stats, stages))
+                .contextWrite(AdoCallStats.attach(stats))
+                .contextWrite(WorkflowStages.attach(stages))
                 .doOnSuccess(result -> log.info("Workflow completed for partial name: '{}', found {} epics in {}ms", 
                         partialName, result.getTotalEpics(), result.getMetadata().getExecutionTimeMs()))
                 .doOnError(error -> log.error("Error executing workflow for partial name: {}", partialName, error));
@@ -136,17 +107,4 @@ public class AdoWorkflowService {
                 .doOnSuccess(tasks -> log.info("Found {} tasks for {} epics", tasks.size(), epicIds.size()))
                 .doOnError(error -> log.error("Error getting tasks for epics: {}", epicIds, error));
     }
-    
-    private EpicWorkflowResult createEmptyResult(String searchType, String searchValue, long startTime, int apiCalls) {
-        return EpicWorkflowResult.builder()
-                .searchType(searchType)
-                .searchValue(searchValue)
-                .epics(new ArrayList<>())
-                .metadata(EpicWorkflowResult.WorkflowMetadata.builder()
-                        .executionTimeMs(System.currentTimeMillis() - startTime)
-                        .apiCallsCount(apiCalls)
-                        .hasErrors(false)
-                        .build())
-                .build();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package org.ms.mcp.workflows.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.workflows.client.AdoCallStats;
+import org.ms.mcp.workflows.client.AdoWorkflowClient;
+import org.ms.mcp.workflows.client.WorkflowStages;
+import org.ms.mcp.workflows.dto.EpicInfo;
+import org.ms.mcp.workflows.dto.EpicWorkflowResult;
+import org.ms.mcp.workflows.dto.ParsedWorkItems;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Ensambla los workflows de épica acotados por el ToolDeadline del contexto
+ * Un fallo o el tiempo límite no descartan lo ya obtenido: se devuelven las épicas completas
+ * y las que faltan quedan en missingEpicIds con el motivo en errorMessage
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class EpicWorkflowAssembler {
+    
+    /**
+     * Épicas completas (con historias y tareas) y las que quedaron sin completar
+     */
+    record Outcome(List<EpicWorkflowResult.EpicData> epics, List<Long> missingEpicIds, String errorMessage) {
+        
+        static Outcome complete(List<EpicWorkflowResult.EpicData> epics) {
+            return new Outcome(epics, List.of(), null);
+        }
+        
+        static Outcome failed(Throwable error, List<Long> missingEpicIds) {
+            return new Outcome(List.of(), missingEpicIds, describe(error));
+        }
+        
+        boolean hasErrors() {
+            return errorMessage != null;
+        }
+        
+        /**
+         * Resultado de la herramienta con las métricas de la ejecución; las listas se copian
+         * para que ambos servicios entreguen un resultado independiente del Outcome
+         */
+        EpicWorkflowResult toResult(String searchType, String searchValue, long startTime, AdoCallStats stats, WorkflowStages stages) {
+            return EpicWorkflowResult.builder()
+                    .searchType(searchType)
+                    .searchValue(searchValue)
+                    .epics(new ArrayList<>(epics))
+                    .metadata(EpicWorkflowResult.WorkflowMetadata.builder()
+                            .executionTimeMs(System.currentTimeMillis() - startTime)
+                            .apiCallsCount(stats.getRequests())
+                            .apiCallsByEndpoint(stats.getRequestsByEndpoint())
+                            .responseBytes(stats.getResponseBytes())
+                            .parseTimeNanos(stats.getParseNanos())
+                            .stages(stages.snapshot())
+                            .hasErrors(hasErrors())
+                            .errorMessage(errorMessage)
+                            .missingEpicIds(new ArrayList<>(missingEpicIds))
+                            .build())
+                    .build();
+        }
+    }
+    
+    /**
+     * Épicas simultáneas al reintentar una a una; cada llamada pasa además por el AdoRequestScheduler
+     */
+    private static final int EPIC_BY_EPIC_CONCURRENCY = 2;
+    
+    private final AdoWorkflowClient client;
+    
+    /**
+     * Épica por ID: épica y subárbol en paralelo; si solo falla el subárbol la épica queda en missingEpicIds
+     */
+    Mono<Outcome> byId(Long epicId) {
+        Mono<Optional<EpicInfo>> epicMono = ToolDeadline.bound(client.getEpicById(epicId))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        // El fallo del subárbol se materializa para no perder la épica ya obtenida
+        Mono<Signal<ParsedWorkItems>> hierarchyMono = ToolDeadline.bound(client.getEpicHierarchy(List.of(epicId)))
+                .materialize();
+        
+        return Mono.zip(epicMono, hierarchyMono)
+                .map(tuple -> {
+                    if (tuple.getT1().isEmpty()) {
+                        return Outcome.complete(List.of());
+                    }
+                    EpicInfo epic = tuple.getT1().get();
+                    Signal<ParsedWorkItems> hierarchy = tuple.getT2();
+                    if (hierarchy.isOnError()) {
+                        log.warn("Partial workflow for Epic ID {}: hierarchy unavailable ({})",
+                                epicId, hierarchy.getThrowable().getMessage());
+                        return new Outcome(List.of(), List.of(epicId), missingMessage(List.of(epic), hierarchy.getThrowable()));
+                    }
+                    return Outcome.complete(List.of(EpicWorkflowResult.EpicData.builder()
+                            .epic(epic)
+                            .userStories(hierarchy.get().getUserStories())
+                            .tasks(hierarchy.get().getTasks())
+                            .build()));
+                })
+                .onErrorResume(error -> {
+                    log.warn("Workflow for Epic ID {} failed: {}", epicId, error.getMessage());
+                    return Mono.just(Outcome.failed(error, List.of(epicId)));
+                });
+    }
+    
+    /**
+     * Épicas por nombre: un flujo por conjuntos para todas; si ADO rechaza la consulta conjunta
+     * (p.ej. supera los 20.000 resultados de WIQL) se reintenta épica a épica para aislar el subárbol
+     * problemático; ante throttling o fallos del servicio no se reintenta, se devuelve el resultado parcial
+     */
+    Mono<Outcome> byName(String partialName) {
+        return ToolDeadline.bound(client.findEpicsByName(partialName))
+                .flatMap(epics -> epics.isEmpty() ? Mono.just(Outcome.complete(List.of())) : forEpics(epics))
+                .onErrorResume(error -> {
+                    log.warn("Epic search for '{}' failed: {}", partialName, error.getMessage());
+                    return Mono.just(Outcome.failed(error, List.of()));
+                });
+    }
+    
+    private Mono<Outcome> forEpics(List<EpicInfo> epics) {
+        return ToolDeadline.bound(client.getCompleteEpicWorkflows(epics))
+                .map(Outcome::complete)
+                .onErrorResume(error -> epics.size() > 1 && !ToolDeadline.isExceeded(error) && isRejectedQuery(error)
+                        ? epicByEpic(epics, error)
+                        : Mono.just(partial(epics, List.of(), error)));
+    }
+    
+    /**
+     * ADO rechazó la petición por su contenido (HTTP 400): repartirla en consultas más pequeñas puede funcionar,
+     * a diferencia de 429, 5xx o errores de conexión, que solo empeorarían con más peticiones
+     */
+    private static boolean isRejectedQuery(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof WebClientResponseException response) {
+                return response.getStatusCode().value() == HttpStatus.BAD_REQUEST.value();
+            }
+        }
+        return false;
+    }
+    
+    private Mono<Outcome> epicByEpic(List<EpicInfo> epics, Throwable cause) {
+        log.warn("Workflow for {} epics failed ({}), retrying epic by epic", epics.size(), cause.getMessage());
+        return Flux.fromIterable(epics)
+                .flatMap(epic -> client.getCompleteEpicWorkflows(List.of(epic))
+                        .flatMapIterable(list -> list)
+                        .onErrorResume(error -> {
+                            log.warn("Workflow for Epic ID {} failed: {}", epic.getId(), error.getMessage());
+                            return Mono.empty();
+                        }), EPIC_BY_EPIC_CONCURRENCY)
+                .transform(ToolDeadline::takeWithin)
+                .collectList()
+                .map(completed -> partial(epics, completed, cause));
+    }
+    
+    /**
+     * Conserva el orden original de las épicas; las no completadas pasan a missingEpicIds
+     */
+    private Outcome partial(List<EpicInfo> epics, List<EpicWorkflowResult.EpicData> completed, Throwable cause) {
+        Map<Long, EpicWorkflowResult.EpicData> byId = new HashMap<>();
+        completed.forEach(data -> byId.put(data.getEpic().getId(), data));
+        
+        List<EpicWorkflowResult.EpicData> ordered = new ArrayList<>();
+        List<EpicInfo> missing = new ArrayList<>();
+        for (EpicInfo epic : epics) {
+            EpicWorkflowResult.EpicData data = byId.get(epic.getId());
+            if (data != null) {
+                ordered.add(data);
+            } else {
+                missing.add(epic);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Outcome.complete(ordered);
+        }
+        return new Outcome(ordered, missing.stream().map(EpicInfo::getId).toList(), missingMessage(missing, cause));
+    }
+    
+    private static String missingMessage(List<EpicInfo> missing, Throwable cause) {
+        return String.format("Resultado parcial: sin historias ni tareas para %s. Causa: %s",
+                missing.stream()
+                        .map(epic -> epic.getId() + " '" + epic.getTitle() + "'")
+                        .collect(Collectors.joining(", ")),
+                describe(cause));
+    }
+    
+    private static String describe(Throwable error) {
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+}
@@ -2,12 +2,13 @@ package org.ms.mcp.workflows.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.workflows.client.AdoCallStats;
 import org.ms.mcp.workflows.client.AdoWorkflowClient;
+import org.ms.mcp.workflows.client.WorkflowStages;
 import org.ms.mcp.workflows.dto.*;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,22 +26,23 @@ import java.util.List;
 public class SimplifiedAdoWorkflowService {
     
     private final AdoWorkflowClient client;
+    private final EpicWorkflowAssembler assembler;
     
     /**
      * FLUJO 1: Obtener workflow completo por Epic ID
-     * Una sola llamada al client hace todo el trabajo
+     * Épica y subárbol en paralelo, acotados por el ToolDeadline del contexto
      */
     public Mono<EpicWorkflowResult> getWorkflowById(Long epicId) {
         log.info("Getting workflow for Epic ID: {}", epicId);
         long startTime = System.currentTimeMillis();
         
-        return client.getCompleteEpicWorkflow(epicId)
-                .map(epicData -> EpicWorkflowResult.builder()
-                        .searchType("BY_ID")
-                        .searchValue(epicId.toString())
-                        .epics(epicData.getEpic() != null ? List.of(epicData) : List.of())
-                        .metadata(createMetadata(startTime, 3))
-                        .build())
+        AdoCallStats stats = new AdoCallStats();
+        WorkflowStages stages = new WorkflowStages();
+        
+        return assembler.byId(epicId)
+                .map(outcome -> outcome.toResult("BY_ID", epicId.toString(), startTime, stats, stages))
+                .contextWrite(AdoCallStats.attach(stats))
+                .contextWrite(WorkflowStages.attach(stages))
                 .doOnSuccess(result -> log.info("Workflow completed for Epic ID: {} with {} epics in {}ms", 
                         epicId, result.getTotalEpics(), result.getMetadata().getExecutionTimeMs()))
                 .doOnError(error -> log.error("Error in workflow for Epic ID: {}", epicId, error));
@@ -48,37 +50,20 @@ public class SimplifiedAdoWorkflowService {
     
     /**
      * FLUJO 2: Obtener workflow completo por nombre parcial
-     * Busca épicas y luego obtiene sus workflows completos
+     * Busca épicas y luego obtiene sus workflows completos en un solo flujo por conjuntos
+     * Ante un fallo o el tiempo límite devuelve las épicas completadas y las que faltan
      */
     public Mono<EpicWorkflowResult> getWorkflowByPartialName(String partialName) {
         log.info("Getting workflow for Epic partial name: {}", partialName);
         long startTime = System.currentTimeMillis();
         
-        return client.findEpicsByName(partialName)
-                .flatMap(epics -> {
-                    if (epics.isEmpty()) {
-                        return Mono.just(createEmptyResult("BY_PARTIAL_NAME", partialName, startTime));
-                    }
-                    
-                    // Para cada épica encontrada, obtener su workflow completo
-                    List<Mono<EpicWorkflowResult.EpicData>> workflows = epics.stream()
-                            .map(epic -> client.getCompleteEpicWorkflow(epic.getId()))
-                            .toList();
-                    
-                    return Mono.zip(workflows, epicDataArray -> {
-                        List<EpicWorkflowResult.EpicData> epicDataList = new ArrayList<>();
-                        for (Object epicData : epicDataArray) {
-                            epicDataList.add((EpicWorkflowResult.EpicData) epicData);
-                        }
-                        
-                        return EpicWorkflowResult.builder()
-                                .searchType("BY_PARTIAL_NAME")
-                                .searchValue(partialName)
-                                .epics(epicDataList)
-                                .metadata(createMetadata(startTime, 1 + epics.size() * 3)) // find + (epic+stories+tasks per epic)
-                                .build();
-                    });
-                })
+        AdoCallStats stats = new AdoCallStats();
+        WorkflowStages stages = new WorkflowStages();
+        
+        return assembler.byName(partialName)
+                .map(outcome -> outcome.toResult("BY_PARTIAL_NAME", partialName, startTime, stats, stages))
+                .contextWrite(AdoCallStats.attach(stats))
+                .contextWrite(WorkflowStages.attach(stages))
                 .doOnSuccess(result -> log.info("Workflow completed for partial name: '{}', found {} epics in {}ms", 
                         partialName, result.getTotalEpics(), result.getMetadata().getExecutionTimeMs()))
                 .doOnError(error -> log.error("Error in workflow for partial name: {}", partialName, error));
@@ -117,25 +102,4 @@ public class SimplifiedAdoWorkflowService {
                 .doOnSuccess(tasks -> log.info("Found {} tasks for {} epics", tasks.size(), epicIds.size()))
                 .doOnError(error -> log.error("Error getting tasks for epics: {}", epicIds, error));
     }
-    
-    // =====================================================
-    // MÉTODOS UTILITARIOS PRIVADOS
-    // =====================================================
-    
-    private EpicWorkflowResult createEmptyResult(String searchType, String searchValue, long startTime) {
-        return EpicWorkflowResult.builder()
-                .searchType(searchType)
-                .searchValue(searchValue)
-                .epics(List.of())
-                .metadata(createMetadata(startTime, 1))
-                .build();
-    }
-    
-    private EpicWorkflowResult.WorkflowMetadata createMetadata(long startTime, int apiCalls) {
-        return EpicWorkflowResult.WorkflowMetadata.builder()
-                .executionTimeMs(System.currentTimeMillis() - startTime)
-                .apiCallsCount(apiCalls)
-                .hasErrors(false)
-                .build();
-    }
 }
\ No newline at end of file
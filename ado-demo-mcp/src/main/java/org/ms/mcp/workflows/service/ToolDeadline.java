@@ -0,0 +1,78 @@
+package org.ms.mcp.workflows.service;
+
+import org.ms.mcp.workflows.exception.ToolDeadlineExceededException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Tiempo límite de una llamada a herramienta MCP, propagado por el Context de Reactor
+ * La capa de herramientas lo fija al suscribirse y los servicios acotan cada etapa
+ * con el tiempo restante para poder devolver un resultado parcial antes de agotarlo
+ */
+public final class ToolDeadline {
+    
+    private static final Object KEY = ToolDeadline.class;
+    
+    private record Window(Instant deadline, Duration budget) {
+        
+        Duration remaining() {
+            return Duration.between(Instant.now(), deadline);
+        }
+    }
+    
+    private ToolDeadline() {
+    }
+    
+    /**
+     * Fija el deadline a budget desde la suscripción; si ya hay uno más estricto se conserva
+     */
+    public static Function<Context, Context> within(Duration budget) {
+        return context -> {
+            Window window = new Window(Instant.now().plus(budget), budget);
+            return window(context).filter(current -> current.deadline().isBefore(window.deadline())).isPresent()
+                    ? context
+                    : context.put(KEY, window);
+        };
+    }
+    
+    /**
+     * Limita source al tiempo restante; al agotarse falla con ToolDeadlineExceededException
+     * Sin deadline en el contexto no cambia nada
+     */
+    public static <T> Mono<T> bound(Mono<T> source) {
+        return Mono.deferContextual(context -> window(context)
+                .map(window -> {
+                    Duration remaining = window.remaining();
+                    Mono<T> exceeded = Mono.error(() -> new ToolDeadlineExceededException(window.budget()));
+                    return remaining.isNegative() || remaining.isZero() ? exceeded : source.timeout(remaining, exceeded);
+                })
+                .orElse(source));
+    }
+    
+    /**
+     * Emite los elementos de source que lleguen antes del deadline y completa al agotarse
+     */
+    public static <T> Flux<T> takeWithin(Flux<T> source) {
+        return Flux.deferContextual(context -> window(context)
+                .map(window -> {
+                    Duration remaining = window.remaining();
+                    return remaining.isNegative() || remaining.isZero() ? Flux.<T>empty() : source.take(remaining);
+                })
+                .orElse(source));
+    }
+    
+    public static boolean isExceeded(Throwable error) {
+        return error instanceof ToolDeadlineExceededException;
+    }
+    
+    private static Optional<Window> window(ContextView context) {
+        return context.getOrEmpty(KEY);
+    }
+}
@@ -0,0 +1,253 @@
+package org.ms.mcp.workflows.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.dto.EpicInfo;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas sobre los títulos de las épicas
+ * Los títulos se normalizan (minúsculas, sin acentos) y cada trigrama se empaqueta en un long;
+ * una búsqueda intersecta las listas de sus trigramas y verifica la subcadena sobre los candidatos
+ * Solo responde por ADO cuando conoce todas las épicas del proyecto: tras un listado completo
+ * con menos de ado.title-index.ttl o mantenido al día por la sincronización incremental
+ * workitemsbatch no se limita a un proyecto, así que solo se indexan las épicas cuyo
+ * System.TeamProject es ado.project
+ */
+@Slf4j
+@Component
+public class EpicTitleIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Épica indexada: título normalizado y fecha de creación (orden de desempate de ADO)
+     */
+    private record Entry(String title, LocalDateTime createdDate) {
+    }
+
+    /**
+     * Coincidencia de una búsqueda: conserva la Entry leída al filtrar, ya que la épica puede
+     * desaparecer del índice mientras se ordena
+     */
+    private record Match<T>(T item, int rank, Entry entry) {
+    }
+
+    private static final Comparator<Match<?>> RELEVANCE = Comparator.<Match<?>>comparingInt(Match::rank)
+            .thenComparingInt(match -> match.entry().title().length())
+            .thenComparing(match -> match.entry().createdDate(),
+                    Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+
+    private final AdoConfiguration.TitleIndex settings;
+    private final String project;
+    private final WorkItemCache cache;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+    private volatile Instant completeAt;
+
+    public EpicTitleIndex(AdoConfiguration config, WorkItemCache cache) {
+        this.settings = config.getTitleIndex();
+        this.project = config.getProject();
+        this.cache = cache;
+    }
+
+    /**
+     * Indica si el índice contiene todas las épicas del proyecto y puede responder sin WIQL
+     */
+    public boolean isAuthoritative() {
+        if (!settings.isEnabled() || completeAt == null) {
+            return false;
+        }
+        Instant now = Instant.now();
+        return completeAt.plus(settings.getTtl()).isAfter(now) || cache.isSyncCurrent(now);
+    }
+
+    /**
+     * Reemplaza el contenido por el listado completo de épicas del proyecto
+     */
+    public synchronized void replaceAll(Collection<EpicInfo> epics, Instant listedAt) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        Set<Long> listed = new HashSet<>();
+        epics.forEach(epic -> listed.add(epic.getId()));
+        epics.forEach(this::put);
+        completeListing(listed, listedAt);
+    }
+
+    /**
+     * Cierra un listado completo hecho por páginas (ya añadidas con putAll):
+     * elimina las épicas que no aparecieron y marca el índice como completo
+     */
+    public synchronized void completeListing(Set<Long> listedIds, Instant listedAt) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        new ArrayList<>(entries.keySet()).stream()
+                .filter(id -> !listedIds.contains(id))
+                .forEach(this::remove);
+        completeAt = listedAt;
+        log.debug("Indexed titles of all {} epics", entries.size());
+    }
+
+    /**
+     * Añade o actualiza épicas obtenidas por cualquier otra vía (búsquedas, sincronización)
+     */
+    public synchronized void putAll(Collection<EpicInfo> epics) {
+        if (settings.isEnabled()) {
+            epics.forEach(this::put);
+        }
+    }
+
+    /**
+     * IDs de las épicas cuyo título contiene el texto, ignorando mayúsculas y acentos, ordenados por relevancia:
+     * título idéntico, prefijo, inicio de palabra y resto; a igualdad, el título más corto y la más reciente
+     */
+    public List<Long> search(String text) {
+        String query = normalize(text == null ? "" : text.strip());
+        Collection<Long> candidates = query.length() < 3 ? entries.keySet() : candidates(query);
+
+        List<Match<Long>> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            int position = entry == null ? -1 : entry.title().indexOf(query);
+            if (position >= 0) {
+                matches.add(new Match<>(id, rank(entry.title(), query, position), entry));
+            }
+        }
+
+        matches.sort(RELEVANCE);
+        return matches.stream().map(Match::item).toList();
+    }
+
+    /**
+     * Ordena épicas obtenidas por otra vía (WIQL) con la misma relevancia que search,
+     * para que el resultado no dependa de si el índice estaba completo
+     * Las que no contienen el texto normalizado (p.ej. si ADO aplica otra comparación) van al final
+     */
+    public static List<EpicInfo> sortByRelevance(Collection<EpicInfo> epics, String text) {
+        String query = normalize(text == null ? "" : text.strip());
+        List<Match<EpicInfo>> matches = new ArrayList<>();
+        for (EpicInfo epic : epics) {
+            Entry entry = new Entry(normalize(epic.getTitle() == null ? "" : epic.getTitle()), epic.getCreatedDate());
+            int position = entry.title().indexOf(query);
+            matches.add(new Match<>(epic, position < 0 ? Integer.MAX_VALUE : rank(entry.title(), query, position), entry));
+        }
+
+        matches.sort(RELEVANCE);
+        return matches.stream().map(Match::item).toList();
+    }
+
+    /**
+     * Hasta limit IDs de épicas mayores que afterId, en orden ascendente (página del listado completo)
+     */
+    public List<Long> idsAfter(long afterId, int limit) {
+        return entries.keySet().stream()
+                .filter(id -> id > afterId)
+                .sorted()
+                .limit(limit)
+                .toList();
+    }
+
+    private Collection<Long> candidates(String query) {
+        Set<Long> result = null;
+        for (long trigram : trigrams(query)) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids == null) {
+                return List.of();
+            }
+            if (result == null) {
+                result = new HashSet<>(ids);
+            } else {
+                result.retainAll(ids);
+            }
+        }
+        return result == null ? List.of() : result;
+    }
+
+    private static int rank(String title, String query, int position) {
+        if (title.equals(query)) {
+            return 0;
+        }
+        if (position == 0) {
+            return 1;
+        }
+        return Character.isLetterOrDigit(title.charAt(position - 1)) ? 3 : 2;
+    }
+
+    private void put(EpicInfo epic) {
+        if (epic.getId() == null || epic.getTitle() == null) {
+            return;
+        }
+        if (!inProject(epic)) {
+            // Épica de otro proyecto (o movida a otro): no debe aparecer en las búsquedas de este
+            remove(epic.getId());
+            return;
+        }
+        Entry entry = new Entry(normalize(epic.getTitle()), epic.getCreatedDate());
+        Entry previous = entries.put(epic.getId(), entry);
+        if (previous != null && previous.title().equals(entry.title())) {
+            return;
+        }
+        if (previous != null) {
+            unlink(epic.getId(), previous.title());
+        }
+        for (long trigram : trigrams(entry.title())) {
+            postings.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(epic.getId());
+        }
+    }
+
+    private boolean inProject(EpicInfo epic) {
+        return project == null || project.equalsIgnoreCase(epic.getTeamProject());
+    }
+
+    private void remove(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            unlink(id, previous.title());
+        }
+    }
+
+    private void unlink(Long id, String title) {
+        for (long trigram : trigrams(title)) {
+            postings.computeIfPresent(trigram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Trigramas distintos del texto, cada uno empaquetado en 48 bits (3 chars de 16 bits)
+     */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+
+    /**
+     * Minúsculas y sin marcas diacríticas ("Épica" -> "epica")
+     */
+    static String normalize(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,129 @@
+package org.ms.mcp.workflows.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.dto.ParsedWorkItems;
+import org.ms.mcp.workflows.util.WorkItemProjection;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Caché acotada (tamaño + TTL) de work items ya parseados, indexada por ID
+ * Cada entrada guarda el instante en que se validó contra ADO para poder
+ * revalidarla pidiendo solo los IDs con System.ChangedDate posterior
+ * Con la sincronización incremental activa, todo lo cacheado se considera validado
+ * hasta la marca de agua de la última sincronización completada
+ * Métricas hit/miss expuestas en Actuator como cache.* {cache=ado.workitems}
+ */
+@Component
+public class WorkItemCache {
+
+    private final AdoConfiguration.Cache settings;
+    private final AdoConfiguration.Sync syncSettings;
+    private final Cache<Long, CachedWorkItem> cache;
+    private volatile Instant syncedUntil = Instant.EPOCH;
+
+    public WorkItemCache(AdoConfiguration config, MeterRegistry meterRegistry) {
+        this.settings = config.getCache();
+        this.syncSettings = config.getSync();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ado.workitems");
+    }
+
+    /**
+     * Work item parseado junto con su ChangedDate y el instante de su última validación
+     */
+    public record CachedWorkItem(Object item, LocalDateTime changedDate, Instant validatedAt) {
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    public Duration getRevalidateAfter() {
+        return settings.getRevalidateAfter();
+    }
+    
+    /**
+     * Instante desde el que hay que revalidar la entrada: su última validación
+     * o la última sincronización incremental, la más reciente de ambas
+     */
+    public Instant validatedAt(CachedWorkItem entry) {
+        return entry.validatedAt().isAfter(syncedUntil) ? entry.validatedAt() : syncedUntil;
+    }
+    
+    /**
+     * Mientras la sincronización incremental esté al día (última pasada dentro de dos
+     * intervalos de sondeo) la caché es autoritativa y no se revalida por petición
+     */
+    public boolean needsRevalidation(CachedWorkItem entry, Instant now) {
+        if (isSyncCurrent(now)) {
+            return false;
+        }
+        return validatedAt(entry).plus(settings.getRevalidateAfter()).isBefore(now);
+    }
+    
+    public boolean isSyncCurrent(Instant now) {
+        return syncSettings.isEnabled() && syncedUntil.plus(syncSettings.getPollInterval().multipliedBy(2)).isAfter(now);
+    }
+    
+    /**
+     * Registra que todos los cambios hasta el instante dado ya se aplicaron a la caché
+     */
+    public void markSynced(Instant until) {
+        if (until.isAfter(syncedUntil)) {
+            syncedUntil = until;
+        }
+    }
+
+    /**
+     * Entradas presentes para los IDs solicitados (registra hits y misses)
+     */
+    public Map<Long, CachedWorkItem> getAll(Collection<Long> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    /**
+     * Guarda los items parseados cuyo DTO queda completo con la proyección usada
+     * Un item obtenido con una proyección parcial (p.ej. SUMMARY) no se cachea
+     */
+    public void put(ParsedWorkItems items, WorkItemProjection projection, Instant validatedAt) {
+        if (projection.covers(WorkItemProjection.EPIC)) {
+            items.getEpics().forEach(epic -> put(epic.getId(), epic, epic.getChangedDate(), validatedAt));
+        }
+        if (projection.covers(WorkItemProjection.USER_STORY)) {
+            items.getUserStories().forEach(story -> put(story.getId(), story, story.getChangedDate(), validatedAt));
+        }
+        if (projection.covers(WorkItemProjection.TASK)) {
+            items.getTasks().forEach(task -> put(task.getId(), task, task.getChangedDate(), validatedAt));
+        }
+    }
+
+    /**
+     * Marca como vigentes entradas que ADO confirmó sin cambios
+     */
+    public void markValidated(Collection<Long> ids, Instant validatedAt) {
+        ids.forEach(id -> cache.asMap().computeIfPresent(id,
+                (key, entry) -> new CachedWorkItem(entry.item(), entry.changedDate(), validatedAt)));
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    private void put(Long id, Object item, LocalDateTime changedDate, Instant validatedAt) {
+        cache.put(id, new CachedWorkItem(item, changedDate, validatedAt));
+    }
+}
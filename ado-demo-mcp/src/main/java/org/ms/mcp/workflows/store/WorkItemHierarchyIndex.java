@@ -0,0 +1,257 @@
+package org.ms.mcp.workflows.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.dto.ParsedWorkItems;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice local de la jerarquía épica -> historia -> tarea
+ * Cada nodo guarda sus hijos como un arreglo primitivo long[] y su tipo en un byte,
+ * de modo que resolver los descendientes de una épica no requiere WIQL recursivo
+ * mientras su subárbol indexado siga vigente (ado.hierarchy.ttl)
+ * Cada nodo pertenece al subárbol de una sola épica y se descarta con él: al expirar, al invalidarse
+ * o, por encima de ado.hierarchy.max-items nodos, empezando por los subárboles más antiguos
+ * La sincronización incremental invalida los subárboles cuyos links cambian
+ * Las escrituras sustituyen subárboles en varios pasos, así que las lecturas que combinan vigencia
+ * y descendientes (freshDescendants, freshParentLinks) se hacen bajo el mismo cerrojo
+ */
+@Slf4j
+@Component
+public class WorkItemHierarchyIndex {
+
+    private static final long[] NO_CHILDREN = new long[0];
+    
+    /** Límite de niveles al subir por los padres (protege de ciclos) */
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * Tipo de nodo indexado; se guarda como ordinal para mantener los nodos compactos
+     */
+    public enum Kind {
+        UNKNOWN, USER_STORY, TASK
+    }
+
+    private record Node(byte kind, long[] children) {
+    }
+
+    /**
+     * Subárbol indexado de una épica: cuándo se indexó y qué descendientes incluye
+     */
+    private record Root(Instant indexedAt, long[] members) {
+    }
+
+    private final AdoConfiguration.Hierarchy settings;
+    private final Map<Long, Node> nodes = new ConcurrentHashMap<>();
+    private final Map<Long, Root> roots = new ConcurrentHashMap<>();
+    private final Map<Long, Long> parents = new ConcurrentHashMap<>();
+
+    public WorkItemHierarchyIndex(AdoConfiguration config) {
+        this.settings = config.getHierarchy();
+    }
+
+    /**
+     * Indica si el subárbol completo de la épica está indexado y vigente
+     * Solo informativo: para leer los descendientes usar freshDescendants o freshParentLinks
+     */
+    public boolean isFresh(Long epicId) {
+        if (!settings.isEnabled()) {
+            return false;
+        }
+        Root root = roots.get(epicId);
+        return root != null && !isExpired(root, Instant.now());
+    }
+
+    /**
+     * Descendientes del tipo indicado si los subárboles de todas las épicas están vigentes
+     * (vacío si alguno no lo está); vigencia y descendientes se leen en un único paso atómico
+     */
+    public synchronized Optional<List<Long>> freshDescendants(Collection<Long> epicIds, Kind kind) {
+        if (!epicIds.stream().allMatch(this::isFresh)) {
+            return Optional.empty();
+        }
+        return Optional.of(descendants(epicIds, kind));
+    }
+
+    /**
+     * Links hijo -> padre del subárbol de la épica si está vigente, leídos en un único paso atómico
+     */
+    public synchronized Optional<Map<Long, Long>> freshParentLinks(Long epicId) {
+        if (!isFresh(epicId)) {
+            return Optional.empty();
+        }
+        return Optional.of(parentLinks(List.of(epicId)));
+    }
+
+    /**
+     * Registra el subárbol completo de las épicas a partir de los links jerárquicos
+     * (hijo -> padre) y de los tipos de los items ya parseados
+     * Sustituye el subárbol anterior de cada épica; un item que estaba bajo otra épica indexada
+     * invalida ese otro subárbol, de modo que ningún nodo queda con su padre antiguo
+     */
+    public synchronized void index(Collection<Long> epicIds, Map<Long, Long> parentByChild, ParsedWorkItems items, Instant indexedAt) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        evictExpired(Instant.now());
+        epicIds.forEach(this::invalidate);
+        parentByChild.keySet().forEach(this::invalidateRootOf);
+
+        Map<Long, Kind> kinds = new HashMap<>();
+        items.getUserStories().forEach(story -> kinds.put(story.getId(), Kind.USER_STORY));
+        items.getTasks().forEach(task -> kinds.put(task.getId(), Kind.TASK));
+
+        Map<Long, List<Long>> childrenByParent = new HashMap<>();
+        parentByChild.forEach((child, parent) -> childrenByParent.computeIfAbsent(parent, key -> new ArrayList<>()).add(child));
+
+        epicIds.forEach(epicId -> nodes.put(epicId, new Node((byte) Kind.UNKNOWN.ordinal(), toArray(childrenByParent.get(epicId)))));
+        parentByChild.keySet().forEach(id -> nodes.put(id,
+                new Node((byte) kinds.getOrDefault(id, Kind.UNKNOWN).ordinal(), toArray(childrenByParent.get(id)))));
+        parents.putAll(parentByChild);
+        for (Long epicId : epicIds) {
+            long[] members = parentLinks(List.of(epicId)).keySet().stream().mapToLong(Long::longValue).toArray();
+            roots.put(epicId, new Root(indexedAt, members));
+        }
+        evictOverCapacity();
+
+        log.debug("Indexed hierarchy of {} epics ({} descendants)", epicIds.size(), parentByChild.size());
+    }
+
+    /**
+     * Aplica el padre actual (System.Parent) de un item modificado: si difiere del indexado,
+     * o el item es nuevo bajo un nodo indexado, se invalidan los subárboles afectados
+     */
+    public synchronized void onParentChanged(Long id, Long parentId) {
+        Long previous = parents.get(id);
+        if (previous != null && previous.equals(parentId)) {
+            return;
+        }
+        invalidateRootOf(previous);
+        invalidateRootOf(parentId);
+    }
+    
+    /**
+     * Nodos indexados (épicas y descendientes)
+     */
+    public int size() {
+        return nodes.size();
+    }
+    
+    private void invalidateRootOf(Long id) {
+        Long current = id;
+        for (int depth = 0; current != null && depth < MAX_DEPTH; depth++) {
+            if (roots.containsKey(current)) {
+                invalidate(current);
+                log.debug("Invalidated indexed hierarchy of epic {}", current);
+                return;
+            }
+            current = parents.get(current);
+        }
+    }
+    
+    /**
+     * Descarta el subárbol de la épica: su nodo, sus descendientes y sus links al padre
+     */
+    private void invalidate(Long epicId) {
+        Root root = roots.remove(epicId);
+        if (root == null) {
+            return;
+        }
+        nodes.remove(epicId);
+        for (long member : root.members()) {
+            nodes.remove(member);
+            parents.remove(member);
+        }
+    }
+    
+    private void evictExpired(Instant now) {
+        List<Long> expired = roots.entrySet().stream()
+                .filter(entry -> isExpired(entry.getValue(), now))
+                .map(Map.Entry::getKey)
+                .toList();
+        expired.forEach(this::invalidate);
+    }
+    
+    private void evictOverCapacity() {
+        if (nodes.size() <= settings.getMaxItems()) {
+            return;
+        }
+        List<Long> oldestFirst = roots.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.comparing(Root::indexedAt)))
+                .map(Map.Entry::getKey)
+                .toList();
+        for (Long epicId : oldestFirst) {
+            if (nodes.size() <= settings.getMaxItems()) {
+                return;
+            }
+            invalidate(epicId);
+            log.debug("Evicted indexed hierarchy of epic {} (over {} items)", epicId, settings.getMaxItems());
+        }
+    }
+    
+    private boolean isExpired(Root root, Instant now) {
+        return !root.indexedAt().plus(settings.getTtl()).isAfter(now);
+    }
+    
+    /**
+     * Links hijo -> padre de todos los descendientes de las épicas, en preorden
+     * (el mismo orden en que los devuelve un WIQL recursivo)
+     */
+    synchronized Map<Long, Long> parentLinks(Collection<Long> epicIds) {
+        Map<Long, Long> parentByChild = new LinkedHashMap<>();
+        Deque<long[]> pending = new ArrayDeque<>();
+        List<Long> roots = new ArrayList<>(epicIds);
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            pushChildren(pending, roots.get(i));
+        }
+        while (!pending.isEmpty()) {
+            long[] link = pending.pop();
+            if (parentByChild.putIfAbsent(link[0], link[1]) == null) {
+                pushChildren(pending, link[0]);
+            }
+        }
+        return parentByChild;
+    }
+
+    private void pushChildren(Deque<long[]> pending, long parent) {
+        Node node = nodes.get(parent);
+        if (node == null) {
+            return;
+        }
+        long[] children = node.children();
+        for (int i = children.length - 1; i >= 0; i--) {
+            pending.push(new long[]{children[i], parent});
+        }
+    }
+
+    /**
+     * IDs de los descendientes de las épicas del tipo indicado
+     */
+    synchronized List<Long> descendants(Collection<Long> epicIds, Kind kind) {
+        List<Long> result = new ArrayList<>();
+        for (Long id : parentLinks(epicIds).keySet()) {
+            Node node = nodes.get(id);
+            if (node != null && node.kind() == kind.ordinal()) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids == null ? NO_CHILDREN : ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
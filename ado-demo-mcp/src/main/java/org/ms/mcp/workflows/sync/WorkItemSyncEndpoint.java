@@ -0,0 +1,24 @@
+package org.ms.mcp.workflows.sync;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint Actuator con el estado de la sincronización incremental (marca de agua, última pasada)
+ */
+@Component
+@Endpoint(id = "adosync")
+@RequiredArgsConstructor
+public class WorkItemSyncEndpoint {
+
+    private final WorkItemSyncService syncService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return syncService.status();
+    }
+}
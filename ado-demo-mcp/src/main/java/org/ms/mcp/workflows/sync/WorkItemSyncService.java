@@ -0,0 +1,195 @@
+package org.ms.mcp.workflows.sync;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.client.AdoWorkflowClient;
+import org.ms.mcp.workflows.dto.ParsedWorkItems;
+import org.ms.mcp.workflows.store.WorkItemCache;
+import org.ms.mcp.workflows.store.WorkItemHierarchyIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Motor de sincronización incremental (ado.sync.enabled)
+ * Cada pollInterval pide a ADO los items modificados desde la marca de agua y los aplica
+ * a la caché local y al índice de jerarquía; mientras esté al día, las herramientas
+ * responden desde la caché sin revalidar contra ADO
+ * Los items eliminados no aparecen en el WIQL y permanecen hasta que expira su TTL
+ */
+@Slf4j
+@Service
+public class WorkItemSyncService {
+
+    /** Margen ante diferencias de reloj entre este servidor y Azure DevOps */
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+
+    private final AdoConfiguration.Sync settings;
+    private final AdoWorkflowClient client;
+    private final WorkItemCache cache;
+    private final WorkItemHierarchyIndex hierarchyIndex;
+    private final Counter syncedItems;
+    private final Counter failedPolls;
+
+    private volatile Instant watermark;
+    private volatile long watermarkId;
+    private volatile Instant lastPollAt;
+    private volatile Instant lastSuccessAt;
+    private volatile int lastPollItems;
+    private volatile String lastError;
+    private Disposable poller;
+
+    public WorkItemSyncService(AdoConfiguration config, AdoWorkflowClient client, WorkItemCache cache,
+                               WorkItemHierarchyIndex hierarchyIndex, MeterRegistry meterRegistry) {
+        this.settings = config.getSync();
+        this.client = client;
+        this.cache = cache;
+        this.hierarchyIndex = hierarchyIndex;
+        this.syncedItems = Counter.builder("ado.sync.items")
+                .description("Work items aplicados a la caché por la sincronización incremental")
+                .register(meterRegistry);
+        this.failedPolls = Counter.builder("ado.sync.failures")
+                .description("Pasadas de sincronización incremental fallidas")
+                .register(meterRegistry);
+        meterRegistry.gauge("ado.sync.lag.seconds", this,
+                service -> service.lastSuccessAt == null ? Double.NaN
+                        : Duration.between(service.lastSuccessAt, Instant.now()).toSeconds());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        if (!cache.isEnabled()) {
+            // Sin caché no hay nada que mantener al día: cada pasada solo consumiría cuota de ADO
+            log.warn("Incremental sync is enabled but ado.cache.enabled is false, sync not started");
+            return;
+        }
+
+        watermark = Instant.now().minus(settings.getInitialLookback());
+        log.info("Starting incremental sync every {} from watermark {}", settings.getPollInterval(), watermark);
+
+        // El listado paginado de todas las épicas completa el índice de títulos; la sincronización lo mantiene
+        poller = client.indexAllEpics()
+                .doOnNext(count -> log.info("Initial epic listing indexed {} epics", count))
+                .onErrorResume(error -> {
+                    log.warn("Initial epic listing failed, title index stays on demand: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .thenMany(Flux.interval(Duration.ZERO, settings.getPollInterval()))
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.dispose();
+        }
+    }
+
+    /**
+     * Una pasada: aplica los cambios posteriores a la marca de agua y la avanza
+     * Si se alcanza maxItemsPerPoll, la marca avanza hasta el último (ChangedDate, ID)
+     * recibido y la siguiente pasada continúa desde ahí, aunque haya más de maxItemsPerPoll
+     * items modificados en el mismo instante
+     */
+    Mono<ParsedWorkItems> poll() {
+        Instant startedAt = Instant.now();
+        lastPollAt = startedAt;
+
+        return client.getWorkItemsChangedSince(watermark, watermarkId, settings.getMaxItemsPerPoll())
+                .doOnNext(items -> {
+                    apply(items);
+                    boolean truncated = items.size() >= settings.getMaxItemsPerPoll();
+                    if (truncated) {
+                        latestChange(items).ifPresent(latest -> {
+                            watermark = latest.changedAt();
+                            watermarkId = latest.id();
+                        });
+                    } else {
+                        watermark = startedAt.minus(CLOCK_SKEW);
+                        watermarkId = 0;
+                        cache.markSynced(startedAt);
+                        lastSuccessAt = startedAt;
+                    }
+                    lastPollItems = items.size();
+                    lastError = null;
+                    syncedItems.increment(items.size());
+                    log.debug("Incremental sync applied {} work items (truncated: {}), watermark {}",
+                            items.size(), truncated, watermark);
+                })
+                .onErrorResume(error -> {
+                    failedPolls.increment();
+                    lastError = error.getMessage();
+                    log.warn("Incremental sync failed, retrying on next poll: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Los items ya quedaron en la caché al obtenerlos; aquí se propagan los cambios de padre al índice
+     */
+    private void apply(ParsedWorkItems items) {
+        items.getUserStories().forEach(story -> hierarchyIndex.onParentChanged(story.getId(), story.getParentId()));
+        items.getTasks().forEach(task -> hierarchyIndex.onParentChanged(task.getId(), task.getParentId()));
+    }
+
+    /**
+     * Posición de un item en el orden de la consulta incremental
+     */
+    private record Change(Instant changedAt, long id) {
+    }
+
+    /**
+     * Último item recibido en orden de (ChangedDate, ID), el de la consulta incremental
+     */
+    private Optional<Change> latestChange(ParsedWorkItems items) {
+        return Stream.of(
+                        items.getEpics().stream().map(epic -> change(epic.getChangedDate(), epic.getId())),
+                        items.getUserStories().stream().map(story -> change(story.getChangedDate(), story.getId())),
+                        items.getTasks().stream().map(task -> change(task.getChangedDate(), task.getId())))
+                .flatMap(changes -> changes)
+                .filter(Objects::nonNull)
+                .max(Comparator.comparing(Change::changedAt).thenComparingLong(Change::id));
+    }
+
+    private static Change change(LocalDateTime changedDate, Long id) {
+        return changedDate == null || id == null ? null : new Change(changedDate.toInstant(ZoneOffset.UTC), id);
+    }
+
+    /**
+     * Estado expuesto en Actuator (/actuator/adosync)
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", settings.isEnabled());
+        status.put("pollInterval", settings.getPollInterval().toString());
+        status.put("watermark", watermark);
+        status.put("watermarkId", watermarkId);
+        status.put("lastPollAt", lastPollAt);
+        status.put("lastSuccessAt", lastSuccessAt);
+        status.put("lastPollItems", lastPollItems);
+        status.put("lastError", lastError);
+        return status;
+    }
+}
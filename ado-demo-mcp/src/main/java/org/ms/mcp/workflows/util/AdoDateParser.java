@@ -0,0 +1,149 @@
+package org.ms.mcp.workflows.util;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parseo de fechas de Azure DevOps a LocalDateTime (se conserva la hora local del texto, sin aplicar el offset)
+ * El camino rápido lee a mano las formas ISO-8601 que devuelve ADO
+ * (yyyy-MM-ddTHH:mm[:ss[.fffffffff]][Z|±HH:MM[:ss]]) sin excepciones ni objetos intermedios;
+ * cualquier otra forma pasa a la cadena de DateTimeFormatter original
+ */
+public final class AdoDateParser {
+
+    private static final DateTimeFormatter[] DATE_FORMATTERS = {
+            DateTimeFormatter.ISO_OFFSET_DATE_TIME,
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'")
+    };
+
+    private static final int[] NANO_SCALE = {
+            100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private AdoDateParser() {
+    }
+
+    /**
+     * Fecha parseada, o null si el texto está vacío o no tiene un formato reconocido
+     */
+    public static LocalDateTime parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        LocalDateTime fast = parseIso(text);
+        return fast != null ? fast : parseWithFormatters(text);
+    }
+
+    /**
+     * Camino lento: prueba cada formatter en orden (null si ninguno aplica)
+     */
+    public static LocalDateTime parseWithFormatters(String text) {
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+            try {
+                return LocalDateTime.parse(text, formatter);
+            } catch (DateTimeParseException e) {
+                // Intentar con el siguiente formato
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Camino rápido; null si el texto no tiene exactamente una de las formas esperadas
+     */
+    static LocalDateTime parseIso(String text) {
+        int length = text.length();
+        if (length < 16 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T' || text.charAt(13) != ':') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        if ((year | month | day | hour | minute) < 0) {
+            return null;
+        }
+
+        int position = 16;
+        int second = 0;
+        int nano = 0;
+        if (position < length && text.charAt(position) == ':') {
+            second = digits(text, position + 1, 2);
+            if (second < 0) {
+                return null;
+            }
+            position += 3;
+            if (position < length && text.charAt(position) == '.') {
+                int start = ++position;
+                while (position < length && position - start < 9 && isDigit(text.charAt(position))) {
+                    nano = nano * 10 + (text.charAt(position) - '0');
+                    position++;
+                }
+                int fractionDigits = position - start;
+                if (fractionDigits == 0) {
+                    return null;
+                }
+                nano *= NANO_SCALE[fractionDigits - 1];
+            }
+        }
+
+        if (position < length && !isOffset(text, position)) {
+            return null;
+        }
+
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Offset final aceptado por ISO_OFFSET_DATE_TIME: Z, ±HH:MM o ±HH:MM:ss
+     */
+    private static boolean isOffset(String text, int position) {
+        int remaining = text.length() - position;
+        char sign = text.charAt(position);
+        if (sign == 'Z') {
+            return remaining == 1;
+        }
+        if ((sign != '+' && sign != '-') || (remaining != 6 && remaining != 9) || text.charAt(position + 3) != ':') {
+            return false;
+        }
+        int hours = digits(text, position + 1, 2);
+        int minutes = digits(text, position + 4, 2);
+        int seconds = 0;
+        if (remaining == 9) {
+            seconds = text.charAt(position + 6) == ':' ? digits(text, position + 7, 2) : -1;
+        }
+        if (hours < 0 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+            return false;
+        }
+        // ZoneOffset admite como máximo ±18:00
+        return hours < 18 || (hours == 18 && minutes == 0 && seconds == 0);
+    }
+
+    private static int digits(String text, int from, int count) {
+        if (from + count > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -7,11 +7,11 @@ import org.ms.mcp.workflows.dto.*;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static org.ms.mcp.workflows.util.WorkItemFields.*;
+
 /**
  * Utilidad para parsear respuestas JSON de Azure DevOps a DTOs específicos
  * Maneja todas las transformaciones de datos para los workflows
@@ -20,13 +20,6 @@ import java.util.stream.Collectors;
 @Component
 public class AdoResponseParser {
     
-    private static final DateTimeFormatter[] DATE_FORMATTERS = {
-            DateTimeFormatter.ISO_OFFSET_DATE_TIME,
-            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'")
-    };
-    
     // =====================================================
     // MÉTODOS PRINCIPALES DE PARSING
     // =====================================================
@@ -67,246 +60,178 @@ public class AdoResponseParser {
     }
     
     /**
-     * Parsea épicas desde una respuesta de detalles de work items
+     * Extrae las relaciones padre-hijo (hijo -> padre) de una respuesta WIQL de links
+     * Las filas raíz (sin source) se ignoran; se conserva el orden de la respuesta
      */
-    public List<EpicInfo> parseEpics(JsonNode response) {
-        log.debug("Parsing epics from response");
+    public Map<Long, Long> extractHierarchyLinks(JsonNode response) {
+        log.debug("Extracting hierarchy links from response");
         
         try {
-            List<EpicInfo> epics = new ArrayList<>();
+            Map<Long, Long> parentByChild = new LinkedHashMap<>();
             
-            if (response.has("value") && response.get("value").isArray()) {
-                for (JsonNode workItem : response.get("value")) {
-                    if (isEpic(workItem)) {
-                        epics.add(parseEpicFromWorkItem(workItem));
+            if (response.has("workItemRelations") && response.get("workItemRelations").isArray()) {
+                for (JsonNode relation : response.get("workItemRelations")) {
+                    JsonNode source = relation.get("source");
+                    JsonNode target = relation.get("target");
+                    if (source != null && source.has("id") && target != null && target.has("id")) {
+                        parentByChild.put(target.get("id").asLong(), source.get("id").asLong());
                     }
                 }
             }
             
-            log.debug("Parsed {} epics", epics.size());
-            return epics;
+            log.debug("Extracted {} hierarchy links", parentByChild.size());
+            return parentByChild;
             
         } catch (Exception e) {
-            throw new AdoParsingException("Error parsing epics", e);
+            throw new AdoParsingException("Error extracting hierarchy links", e);
         }
     }
     
+    /**
+     * Parsea épicas desde una respuesta de detalles de work items
+     */
+    public List<EpicInfo> parseEpics(JsonNode response) {
+        return parseWorkItems(response).getEpics();
+    }
+    
     /**
      * Parsea historias de usuario desde una respuesta de detalles de work items
      */
     public List<UserStoryInfo> parseUserStories(JsonNode response) {
-        log.debug("Parsing user stories from response");
-        
-        try {
-            List<UserStoryInfo> userStories = new ArrayList<>();
-            
-            if (response.has("value") && response.get("value").isArray()) {
-                for (JsonNode workItem : response.get("value")) {
-                    if (isUserStory(workItem)) {
-                        userStories.add(parseUserStoryFromWorkItem(workItem));
-                    }
-                }
-            }
-            
-            log.debug("Parsed {} user stories", userStories.size());
-            return userStories;
-            
-        } catch (Exception e) {
-            throw new AdoParsingException("Error parsing user stories", e);
-        }
+        return parseWorkItems(response).getUserStories();
     }
     
     /**
      * Parsea tareas desde una respuesta de detalles de work items
      */
     public List<TaskInfo> parseTasks(JsonNode response) {
-        log.debug("Parsing tasks from response");
-        
-        try {
-            List<TaskInfo> tasks = new ArrayList<>();
-            
-            if (response.has("value") && response.get("value").isArray()) {
-                for (JsonNode workItem : response.get("value")) {
-                    if (isTask(workItem)) {
-                        tasks.add(parseTaskFromWorkItem(workItem));
-                    }
-                }
-            }
-            
-            log.debug("Parsed {} tasks", tasks.size());
-            return tasks;
-            
-        } catch (Exception e) {
-            throw new AdoParsingException("Error parsing tasks", e);
-        }
+        return parseWorkItems(response).getTasks();
     }
     
-    // =====================================================
-    // MÉTODOS DE PARSING ESPECÍFICOS POR TIPO
-    // =====================================================
-    
     /**
-     * Parsea una épica individual desde un JsonNode de work item
+     * Parsea una respuesta de detalles con tipos mezclados y la particiona
+     * en épicas, historias y tareas, en una sola pasada sobre "value"
      */
-    private EpicInfo parseEpicFromWorkItem(JsonNode workItem) {
-        JsonNode fields = workItem.get("fields");
+    public ParsedWorkItems parseWorkItems(JsonNode response) {
+        log.debug("Parsing work items from response");
         
-        return EpicInfo.builder()
-                .id(workItem.get("id").asLong())
-                .title(getFieldValue(fields, "System.Title"))
-                .state(getFieldValue(fields, "System.State"))
-                .description(getFieldValue(fields, "System.Description"))
-                .assignedTo(getAssignedToDisplayName(fields))
-                .areaPath(getFieldValue(fields, "System.AreaPath"))
-                .createdDate(parseDateTime(getFieldValue(fields, "System.CreatedDate")))
-                .changedDate(parseDateTime(getFieldValue(fields, "System.ChangedDate")))
-                .priority(getFieldValue(fields, "Microsoft.VSTS.Common.Priority"))
-                .businessValue(getFieldValue(fields, "Microsoft.VSTS.Common.BusinessValue"))
-                .acceptanceCriteria(getFieldValue(fields, "Microsoft.VSTS.Common.AcceptanceCriteria"))
-                .startDate(parseDateTime(getFieldValue(fields, "Microsoft.VSTS.Scheduling.StartDate")))
-                .targetDate(parseDateTime(getFieldValue(fields, "Microsoft.VSTS.Scheduling.TargetDate")))
-                .build();
-    }
-    
-    /**
-     * Parsea una historia de usuario individual desde un JsonNode de work item
-     */
-    private UserStoryInfo parseUserStoryFromWorkItem(JsonNode workItem) {
-        JsonNode fields = workItem.get("fields");
+        ParsedWorkItems items = ParsedWorkItems.builder().build();
+        JsonNode values = response.get("value");
+        if (values != null && values.isArray()) {
+            for (JsonNode workItem : values) {
+                items.add(parseWorkItem(workItem));
+            }
+        }
         
-        return UserStoryInfo.builder()
-                .id(workItem.get("id").asLong())
-                .title(getFieldValue(fields, "System.Title"))
-                .state(getFieldValue(fields, "System.State"))
-                .description(getFieldValue(fields, "System.Description"))
-                .assignedTo(getAssignedToDisplayName(fields))
-                .areaPath(getFieldValue(fields, "System.AreaPath"))
-                .createdDate(parseDateTime(getFieldValue(fields, "System.CreatedDate")))
-                .changedDate(parseDateTime(getFieldValue(fields, "System.ChangedDate")))
-                .acceptanceCriteria(getFieldValue(fields, "Microsoft.VSTS.Common.AcceptanceCriteria"))
-                .storyPoints(getIntegerFieldValue(fields, "Microsoft.VSTS.Scheduling.StoryPoints"))
-                .priority(getFieldValue(fields, "Microsoft.VSTS.Common.Priority"))
-                .riskLevel(getFieldValue(fields, "Microsoft.VSTS.Common.Risk"))
-                .build();
+        log.debug("Parsed {} epics, {} user stories and {} tasks",
+                items.getEpics().size(), items.getUserStories().size(), items.getTasks().size());
+        return items;
     }
     
     /**
-     * Parsea una tarea individual desde un JsonNode de work item
+     * Parsea un work item individual al DTO de su tipo (null si no es épica, historia ni tarea)
+     * El tipo se lee una sola vez y los campos se recorren una sola vez con la tabla del DTO
      */
-    private TaskInfo parseTaskFromWorkItem(JsonNode workItem) {
-        JsonNode fields = workItem.get("fields");
-        
-        return TaskInfo.builder()
-                .id(workItem.get("id").asLong())
-                .title(getFieldValue(fields, "System.Title"))
-                .state(getFieldValue(fields, "System.State"))
-                .description(getFieldValue(fields, "System.Description"))
-                .assignedTo(getAssignedToDisplayName(fields))
-                .areaPath(getFieldValue(fields, "System.AreaPath"))
-                .createdDate(parseDateTime(getFieldValue(fields, "System.CreatedDate")))
-                .changedDate(parseDateTime(getFieldValue(fields, "System.ChangedDate")))
-                .remainingWork(getDoubleFieldValue(fields, "Microsoft.VSTS.Scheduling.RemainingWork"))
-                .originalEstimate(getDoubleFieldValue(fields, "Microsoft.VSTS.Scheduling.OriginalEstimate"))
-                .completedWork(getDoubleFieldValue(fields, "Microsoft.VSTS.Scheduling.CompletedWork"))
-                .activity(getFieldValue(fields, "Microsoft.VSTS.Common.Activity"))
-                .priority(getFieldValue(fields, "Microsoft.VSTS.Common.Priority"))
-                .build();
+    public Object parseWorkItem(JsonNode workItem) {
+        try {
+            JsonNode fields = workItem.get("fields");
+            JsonNode type = fields == null ? null : fields.get(WORK_ITEM_TYPE);
+            if (type == null || type.isNull()) {
+                return null;
+            }
+            
+            return switch (type.asText()) {
+                case "Epic" -> {
+                    EpicInfo.EpicInfoBuilder builder = EpicInfo.builder().id(workItem.get("id").asLong());
+                    EPIC_FIELDS.apply(fields, builder);
+                    yield builder.build();
+                }
+                case "Issue", "User Story" -> {
+                    UserStoryInfo.UserStoryInfoBuilder builder = UserStoryInfo.builder().id(workItem.get("id").asLong());
+                    USER_STORY_FIELDS.apply(fields, builder);
+                    yield builder.build();
+                }
+                case "Task" -> {
+                    TaskInfo.TaskInfoBuilder builder = TaskInfo.builder().id(workItem.get("id").asLong());
+                    TASK_FIELDS.apply(fields, builder);
+                    yield builder.build();
+                }
+                default -> null;
+            };
+            
+        } catch (Exception e) {
+            throw new AdoParsingException("Error parsing work item", e);
+        }
     }
     
     // =====================================================
-    // MÉTODOS UTILITARIOS
+    // TABLAS DE CAMPOS POR TIPO DE DTO
     // =====================================================
     
-    /**
-     * Determina si un work item es una épica
-     */
-    private boolean isEpic(JsonNode workItem) {
-        return "Epic".equals(getWorkItemType(workItem));
-    }
-    
-    /**
-     * Determina si un work item es una historia de usuario
-     */
-    private boolean isUserStory(JsonNode workItem) {
-        String type = getWorkItemType(workItem);
-        return "Issue".equals(type) || "User Story".equals(type);
-    }
-    
-    /**
-     * Determina si un work item es una tarea
-     */
-    private boolean isTask(JsonNode workItem) {
-        return "Task".equals(getWorkItemType(workItem));
-    }
-    
-    /**
-     * Obtiene el tipo de work item
-     */
-    private String getWorkItemType(JsonNode workItem) {
-        return getFieldValue(workItem.get("fields"), "System.WorkItemType");
-    }
-    
-    /**
-     * Obtiene el valor de un campo como string
-     */
-    private String getFieldValue(JsonNode fields, String fieldName) {
-        if (fields != null && fields.has(fieldName) && !fields.get(fieldName).isNull()) {
-            return fields.get(fieldName).asText();
-        }
-        return null;
-    }
+    private static final WorkItemFieldTable<EpicInfo.EpicInfoBuilder> EPIC_FIELDS =
+            new WorkItemFieldTable<EpicInfo.EpicInfoBuilder>()
+                    .text(TEAM_PROJECT, EpicInfo.EpicInfoBuilder::teamProject)
+                    .text(TITLE, EpicInfo.EpicInfoBuilder::title)
+                    .text(STATE, EpicInfo.EpicInfoBuilder::state)
+                    .text(DESCRIPTION, EpicInfo.EpicInfoBuilder::description)
+                    .identity(ASSIGNED_TO, EpicInfo.EpicInfoBuilder::assignedTo)
+                    .text(AREA_PATH, EpicInfo.EpicInfoBuilder::areaPath)
+                    .dateTime(CREATED_DATE, EpicInfo.EpicInfoBuilder::createdDate)
+                    .dateTime(CHANGED_DATE, EpicInfo.EpicInfoBuilder::changedDate)
+                    .text(PRIORITY, EpicInfo.EpicInfoBuilder::priority)
+                    .text(BUSINESS_VALUE, EpicInfo.EpicInfoBuilder::businessValue)
+                    .text(ACCEPTANCE_CRITERIA, EpicInfo.EpicInfoBuilder::acceptanceCriteria)
+                    .dateTime(START_DATE, EpicInfo.EpicInfoBuilder::startDate)
+                    .dateTime(TARGET_DATE, EpicInfo.EpicInfoBuilder::targetDate);
     
-    /**
-     * Obtiene el valor de un campo como integer
-     */
-    private Integer getIntegerFieldValue(JsonNode fields, String fieldName) {
-        if (fields != null && fields.has(fieldName) && !fields.get(fieldName).isNull()) {
-            return fields.get(fieldName).asInt();
-        }
-        return null;
-    }
+    private static final WorkItemFieldTable<UserStoryInfo.UserStoryInfoBuilder> USER_STORY_FIELDS =
+            new WorkItemFieldTable<UserStoryInfo.UserStoryInfoBuilder>()
+                    .text(TITLE, UserStoryInfo.UserStoryInfoBuilder::title)
+                    .text(STATE, UserStoryInfo.UserStoryInfoBuilder::state)
+                    .text(DESCRIPTION, UserStoryInfo.UserStoryInfoBuilder::description)
+                    .identity(ASSIGNED_TO, UserStoryInfo.UserStoryInfoBuilder::assignedTo)
+                    .text(AREA_PATH, UserStoryInfo.UserStoryInfoBuilder::areaPath)
+                    .dateTime(CREATED_DATE, UserStoryInfo.UserStoryInfoBuilder::createdDate)
+                    .dateTime(CHANGED_DATE, UserStoryInfo.UserStoryInfoBuilder::changedDate)
+                    .text(ACCEPTANCE_CRITERIA, UserStoryInfo.UserStoryInfoBuilder::acceptanceCriteria)
+                    .integer(STORY_POINTS, UserStoryInfo.UserStoryInfoBuilder::storyPoints)
+                    .text(PRIORITY, UserStoryInfo.UserStoryInfoBuilder::priority)
+                    .text(RISK, UserStoryInfo.UserStoryInfoBuilder::riskLevel)
+                    .longValue(PARENT, UserStoryInfo.UserStoryInfoBuilder::parentId);
     
-    /**
-     * Obtiene el valor de un campo como double
-     */
-    private Double getDoubleFieldValue(JsonNode fields, String fieldName) {
-        if (fields != null && fields.has(fieldName) && !fields.get(fieldName).isNull()) {
-            return fields.get(fieldName).asDouble();
-        }
-        return null;
-    }
+    private static final WorkItemFieldTable<TaskInfo.TaskInfoBuilder> TASK_FIELDS =
+            new WorkItemFieldTable<TaskInfo.TaskInfoBuilder>()
+                    .text(TITLE, TaskInfo.TaskInfoBuilder::title)
+                    .text(STATE, TaskInfo.TaskInfoBuilder::state)
+                    .text(DESCRIPTION, TaskInfo.TaskInfoBuilder::description)
+                    .identity(ASSIGNED_TO, TaskInfo.TaskInfoBuilder::assignedTo)
+                    .text(AREA_PATH, TaskInfo.TaskInfoBuilder::areaPath)
+                    .dateTime(CREATED_DATE, TaskInfo.TaskInfoBuilder::createdDate)
+                    .dateTime(CHANGED_DATE, TaskInfo.TaskInfoBuilder::changedDate)
+                    .decimal(REMAINING_WORK, TaskInfo.TaskInfoBuilder::remainingWork)
+                    .decimal(ORIGINAL_ESTIMATE, TaskInfo.TaskInfoBuilder::originalEstimate)
+                    .decimal(COMPLETED_WORK, TaskInfo.TaskInfoBuilder::completedWork)
+                    .text(ACTIVITY, TaskInfo.TaskInfoBuilder::activity)
+                    .text(PRIORITY, TaskInfo.TaskInfoBuilder::priority)
+                    .longValue(PARENT, TaskInfo.TaskInfoBuilder::parentId);
     
-    /**
-     * Obtiene el nombre del usuario asignado
-     */
-    private String getAssignedToDisplayName(JsonNode fields) {
-        if (fields != null && fields.has("System.AssignedTo") && !fields.get("System.AssignedTo").isNull()) {
-            JsonNode assignedTo = fields.get("System.AssignedTo");
-            if (assignedTo.has("displayName")) {
-                return assignedTo.get("displayName").asText();
-            }
-        }
-        return null;
-    }
+    // =====================================================
+    // MÉTODOS UTILITARIOS
+    // =====================================================
     
     /**
-     * Parsea una fecha/hora desde string usando múltiples formatos
+     * Parsea una fecha/hora desde string (camino rápido ISO-8601 con múltiples formatos de respaldo)
      */
-    private LocalDateTime parseDateTime(String dateTimeStr) {
+    static LocalDateTime parseDateTime(String dateTimeStr) {
         if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) {
             return null;
         }
         
-        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
-            try {
-                return LocalDateTime.parse(dateTimeStr, formatter);
-            } catch (DateTimeParseException e) {
-                // Intentar con el siguiente formato
-            }
+        LocalDateTime parsed = AdoDateParser.parse(dateTimeStr);
+        if (parsed == null) {
+            log.warn("Could not parse date time: {}", dateTimeStr);
         }
-        
-        log.warn("Could not parse date time: {}", dateTimeStr);
-        return null;
+        return parsed;
     }
     
     /**
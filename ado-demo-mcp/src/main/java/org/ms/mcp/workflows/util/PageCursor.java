@@ -0,0 +1,42 @@
+package org.ms.mcp.workflows.util;
+
+import org.ms.mcp.workflows.exception.AdoWorkflowException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Token de continuación de los listados paginados: el último ID entregado y el listado al que pertenece,
+ * en base64url para que el cliente lo trate como opaco
+ * La paginación es por conjunto de claves (System.Id > último ID), estable ante altas y bajas entre páginas
+ */
+public final class PageCursor {
+    
+    private static final String VERSION = "v1";
+    
+    private PageCursor() {
+    }
+    
+    public static String encode(String listing, long lastId) {
+        String token = VERSION + ":" + listing + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Último ID entregado según el cursor (0 si no hay cursor: primera página)
+     */
+    public static long decode(String listing, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor.strip()), StandardCharsets.UTF_8).split(":");
+            if (parts.length == 3 && parts[0].equals(VERSION) && parts[1].equals(listing)) {
+                return Long.parseLong(parts[2]);
+            }
+        } catch (IllegalArgumentException e) {
+            // base64 o número inválido: mismo error que un cursor de otro listado
+        }
+        throw new AdoWorkflowException("Cursor de paginación inválido para el listado de " + listing);
+    }
+}
@@ -0,0 +1,34 @@
+package org.ms.mcp.workflows.util;
+
+import java.util.function.Supplier;
+
+/**
+ * Acumula el tiempo dedicado a decodificar una respuesta: tokenizado del stream y paso a DTOs
+ * Una instancia por intento de llamada; los onNext de un Flux son secuenciales, no necesita sincronización
+ */
+public final class ParseClock {
+    
+    private long nanos;
+    
+    public <T> T time(Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+    
+    public void time(Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+    
+    public long nanos() {
+        return nanos;
+    }
+}
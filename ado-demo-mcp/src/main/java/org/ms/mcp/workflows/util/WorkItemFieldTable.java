@@ -0,0 +1,67 @@
+package org.ms.mcp.workflows.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Tabla precalculada nombre de campo -> setter del builder de un DTO
+ * Se registra una vez por tipo de DTO; al parsear, el objeto "fields" se recorre
+ * una sola vez y cada campo se despacha con una búsqueda en la tabla
+ * Los campos ausentes o null no se asignan (quedan null en el DTO)
+ */
+final class WorkItemFieldTable<B> {
+
+    private final Map<String, BiConsumer<B, JsonNode>> setters = new HashMap<>();
+
+    WorkItemFieldTable<B> text(String field, BiConsumer<B, String> setter) {
+        return register(field, JsonNode::asText, setter);
+    }
+
+    WorkItemFieldTable<B> integer(String field, BiConsumer<B, Integer> setter) {
+        return register(field, JsonNode::asInt, setter);
+    }
+
+    WorkItemFieldTable<B> longValue(String field, BiConsumer<B, Long> setter) {
+        return register(field, JsonNode::asLong, setter);
+    }
+
+    WorkItemFieldTable<B> decimal(String field, BiConsumer<B, Double> setter) {
+        return register(field, JsonNode::asDouble, setter);
+    }
+
+    WorkItemFieldTable<B> dateTime(String field, BiConsumer<B, LocalDateTime> setter) {
+        return register(field, value -> AdoResponseParser.parseDateTime(value.asText()), setter);
+    }
+
+    /**
+     * Campo identidad (System.AssignedTo y similares): se toma su displayName
+     */
+    WorkItemFieldTable<B> identity(String field, BiConsumer<B, String> setter) {
+        return register(field, value -> value.has("displayName") ? value.get("displayName").asText() : null, setter);
+    }
+
+    private <V> WorkItemFieldTable<B> register(String field, Function<JsonNode, V> converter, BiConsumer<B, V> setter) {
+        setters.put(field, (builder, value) -> setter.accept(builder, converter.apply(value)));
+        return this;
+    }
+
+    /**
+     * Aplica al builder todos los campos conocidos en una única pasada sobre fields
+     */
+    void apply(JsonNode fields, B builder) {
+        if (fields == null) {
+            return;
+        }
+        for (Map.Entry<String, JsonNode> field : fields.properties()) {
+            BiConsumer<B, JsonNode> setter = setters.get(field.getKey());
+            if (setter != null && !field.getValue().isNull()) {
+                setter.accept(builder, field.getValue());
+            }
+        }
+    }
+}
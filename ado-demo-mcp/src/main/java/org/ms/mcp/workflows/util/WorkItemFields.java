@@ -0,0 +1,35 @@
+package org.ms.mcp.workflows.util;
+
+/**
+ * Nombres de referencia de los campos de Azure DevOps que leen los DTOs
+ * Fuente única para el parser y para las proyecciones de campos
+ */
+public final class WorkItemFields {
+    
+    public static final String WORK_ITEM_TYPE = "System.WorkItemType";
+    public static final String TEAM_PROJECT = "System.TeamProject";
+    public static final String TITLE = "System.Title";
+    public static final String STATE = "System.State";
+    public static final String DESCRIPTION = "System.Description";
+    public static final String ASSIGNED_TO = "System.AssignedTo";
+    public static final String AREA_PATH = "System.AreaPath";
+    public static final String CREATED_DATE = "System.CreatedDate";
+    public static final String CHANGED_DATE = "System.ChangedDate";
+    public static final String PARENT = "System.Parent";
+    
+    public static final String PRIORITY = "Microsoft.VSTS.Common.Priority";
+    public static final String BUSINESS_VALUE = "Microsoft.VSTS.Common.BusinessValue";
+    public static final String ACCEPTANCE_CRITERIA = "Microsoft.VSTS.Common.AcceptanceCriteria";
+    public static final String RISK = "Microsoft.VSTS.Common.Risk";
+    public static final String ACTIVITY = "Microsoft.VSTS.Common.Activity";
+    
+    public static final String START_DATE = "Microsoft.VSTS.Scheduling.StartDate";
+    public static final String TARGET_DATE = "Microsoft.VSTS.Scheduling.TargetDate";
+    public static final String STORY_POINTS = "Microsoft.VSTS.Scheduling.StoryPoints";
+    public static final String REMAINING_WORK = "Microsoft.VSTS.Scheduling.RemainingWork";
+    public static final String ORIGINAL_ESTIMATE = "Microsoft.VSTS.Scheduling.OriginalEstimate";
+    public static final String COMPLETED_WORK = "Microsoft.VSTS.Scheduling.CompletedWork";
+    
+    private WorkItemFields() {
+    }
+}
@@ -0,0 +1,132 @@
+package org.ms.mcp.workflows.util;
+
+import org.ms.mcp.workflows.dto.EpicInfo;
+import org.ms.mcp.workflows.dto.TaskInfo;
+import org.ms.mcp.workflows.dto.UserStoryInfo;
+
+import java.util.List;
+
+import static org.ms.mcp.workflows.util.WorkItemFields.*;
+
+/**
+ * Proyecciones de campos enviadas a Azure DevOps (parámetro fields)
+ * Cada una contiene exactamente los campos que lee el DTO correspondiente,
+ * evitando descargar historial, descripciones HTML u otros campos no usados
+ */
+public enum WorkItemProjection {
+    
+    EPIC(List.of(WORK_ITEM_TYPE, TEAM_PROJECT, TITLE, STATE, DESCRIPTION, ASSIGNED_TO, AREA_PATH, CREATED_DATE, CHANGED_DATE,
+            PRIORITY, BUSINESS_VALUE, ACCEPTANCE_CRITERIA, START_DATE, TARGET_DATE)),
+    
+    USER_STORY(List.of(WORK_ITEM_TYPE, TITLE, STATE, DESCRIPTION, ASSIGNED_TO, AREA_PATH, CREATED_DATE, CHANGED_DATE, PARENT,
+            ACCEPTANCE_CRITERIA, STORY_POINTS, PRIORITY, RISK)),
+    
+    TASK(List.of(WORK_ITEM_TYPE, TITLE, STATE, DESCRIPTION, ASSIGNED_TO, AREA_PATH, CREATED_DATE, CHANGED_DATE, PARENT,
+            REMAINING_WORK, ORIGINAL_ESTIMATE, COMPLETED_WORK, ACTIVITY, PRIORITY)),
+    
+    /**
+     * Unión de USER_STORY y TASK para traer el subárbol de una épica en una sola petición
+     */
+    HIERARCHY(List.of(WORK_ITEM_TYPE, TITLE, STATE, DESCRIPTION, ASSIGNED_TO, AREA_PATH, CREATED_DATE, CHANGED_DATE, PARENT,
+            ACCEPTANCE_CRITERIA, STORY_POINTS, PRIORITY, RISK,
+            REMAINING_WORK, ORIGINAL_ESTIMATE, COMPLETED_WORK, ACTIVITY)),
+    
+    /**
+     * Unión de todas las proyecciones completas, para cargas con tipos mezclados (sincronización)
+     */
+    ALL(List.of(WORK_ITEM_TYPE, TEAM_PROJECT, TITLE, STATE, DESCRIPTION, ASSIGNED_TO, AREA_PATH, CREATED_DATE, CHANGED_DATE, PARENT,
+            PRIORITY, BUSINESS_VALUE, ACCEPTANCE_CRITERIA, START_DATE, TARGET_DATE, STORY_POINTS, RISK,
+            REMAINING_WORK, ORIGINAL_ESTIMATE, COMPLETED_WORK, ACTIVITY)),
+    
+    /**
+     * Proyección ligera para herramientas de listado: sin descripciones ni criterios de aceptación
+     */
+    SUMMARY(List.of(WORK_ITEM_TYPE, TITLE, STATE, ASSIGNED_TO, AREA_PATH, CREATED_DATE, CHANGED_DATE,
+            PRIORITY, STORY_POINTS));
+    
+    private final List<String> fields;
+    
+    WorkItemProjection(List<String> fields) {
+        this.fields = fields;
+    }
+    
+    public List<String> getFields() {
+        return fields;
+    }
+    
+    /**
+     * Indica si esta proyección incluye todos los campos de otra
+     * (un DTO solo está completo si se obtuvo con una proyección que cubre la suya)
+     */
+    public boolean covers(WorkItemProjection other) {
+        return fields.containsAll(other.fields);
+    }
+    
+    /**
+     * Copia del DTO sin los campos que esta proyección no pide
+     * La caché guarda DTOs completos: un hit servido a una proyección parcial (p.ej. SUMMARY)
+     * debe verse igual que si se hubiera pedido a ADO con ella. Los padres derivados de los links no se tocan
+     */
+    public Object restrict(Object item) {
+        if (item instanceof EpicInfo epic && !covers(EPIC)) {
+            return epic.toBuilder()
+                    .teamProject(keep(TEAM_PROJECT, epic.getTeamProject()))
+                    .title(keep(TITLE, epic.getTitle()))
+                    .state(keep(STATE, epic.getState()))
+                    .description(keep(DESCRIPTION, epic.getDescription()))
+                    .assignedTo(keep(ASSIGNED_TO, epic.getAssignedTo()))
+                    .areaPath(keep(AREA_PATH, epic.getAreaPath()))
+                    .createdDate(keep(CREATED_DATE, epic.getCreatedDate()))
+                    .changedDate(keep(CHANGED_DATE, epic.getChangedDate()))
+                    .priority(keep(PRIORITY, epic.getPriority()))
+                    .businessValue(keep(BUSINESS_VALUE, epic.getBusinessValue()))
+                    .acceptanceCriteria(keep(ACCEPTANCE_CRITERIA, epic.getAcceptanceCriteria()))
+                    .startDate(keep(START_DATE, epic.getStartDate()))
+                    .targetDate(keep(TARGET_DATE, epic.getTargetDate()))
+                    .build();
+        } else if (item instanceof UserStoryInfo story && !covers(USER_STORY)) {
+            return story.toBuilder()
+                    .title(keep(TITLE, story.getTitle()))
+                    .state(keep(STATE, story.getState()))
+                    .description(keep(DESCRIPTION, story.getDescription()))
+                    .assignedTo(keep(ASSIGNED_TO, story.getAssignedTo()))
+                    .areaPath(keep(AREA_PATH, story.getAreaPath()))
+                    .createdDate(keep(CREATED_DATE, story.getCreatedDate()))
+                    .changedDate(keep(CHANGED_DATE, story.getChangedDate()))
+                    .acceptanceCriteria(keep(ACCEPTANCE_CRITERIA, story.getAcceptanceCriteria()))
+                    .storyPoints(keep(STORY_POINTS, story.getStoryPoints()))
+                    .priority(keep(PRIORITY, story.getPriority()))
+                    .riskLevel(keep(RISK, story.getRiskLevel()))
+                    .parentId(keep(PARENT, story.getParentId()))
+                    .build();
+        } else if (item instanceof TaskInfo task && !covers(TASK)) {
+            return task.toBuilder()
+                    .title(keep(TITLE, task.getTitle()))
+                    .state(keep(STATE, task.getState()))
+                    .description(keep(DESCRIPTION, task.getDescription()))
+                    .assignedTo(keep(ASSIGNED_TO, task.getAssignedTo()))
+                    .areaPath(keep(AREA_PATH, task.getAreaPath()))
+                    .createdDate(keep(CREATED_DATE, task.getCreatedDate()))
+                    .changedDate(keep(CHANGED_DATE, task.getChangedDate()))
+                    .remainingWork(keep(REMAINING_WORK, task.getRemainingWork()))
+                    .originalEstimate(keep(ORIGINAL_ESTIMATE, task.getOriginalEstimate()))
+                    .completedWork(keep(COMPLETED_WORK, task.getCompletedWork()))
+                    .activity(keep(ACTIVITY, task.getActivity()))
+                    .priority(keep(PRIORITY, task.getPriority()))
+                    .parentId(keep(PARENT, task.getParentId()))
+                    .build();
+        }
+        return item;
+    }
+    
+    private <V> V keep(String field, V value) {
+        return fields.contains(field) ? value : null;
+    }
+    
+    /**
+     * Lista de campos separada por comas para el query string
+     */
+    public String toQueryParam() {
+        return String.join(",", fields);
+    }
+}
@@ -0,0 +1,201 @@
+package org.ms.mcp.workflows.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.client.AdoParsingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decodificación en streaming de respuestas de ADO
+ * Alimenta el parser no bloqueante de Jackson con los DataBuffer según llegan y emite cada
+ * elemento del array indicado (p.ej. "value" de workitemsbatch) como un JsonNode independiente,
+ * de modo que en memoria solo hay un ítem a la vez y nunca el árbol de la respuesta completa
+ * Los valores de texto que superan ado.api.memory.max-field-length se truncan al copiarlos y
+ * terminan con una marca que indica cuánto se omitió; el parser rechaza los que superan
+ * ado.api.memory.max-string-length, de modo que ni siquiera el token en curso crece sin límite
+ */
+@Slf4j
+@Component
+public class WorkItemStreamDecoder {
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory parserFactory;
+    private final int maxFieldLength;
+    private final int maxStringLength;
+    private final Counter truncatedFields;
+
+    public WorkItemStreamDecoder(ObjectMapper objectMapper, AdoConfiguration config, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.maxFieldLength = config.getApi().getMemory().getMaxFieldLength();
+        this.maxStringLength = config.getApi().getMemory().getMaxStringLength();
+        // Copia de la factoría: el límite solo aplica a las respuestas decodificadas en streaming
+        this.parserFactory = objectMapper.getFactory().copy();
+        this.parserFactory.setStreamReadConstraints(objectMapper.getFactory().streamReadConstraints()
+                .rebuild()
+                .maxStringLength(maxStringLength)
+                .build());
+        this.truncatedFields = Counter.builder("ado.client.truncated.fields")
+                .description("Valores de texto truncados por superar ado.api.memory.max-field-length")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Elementos del array de primer nivel arrayField, en orden de llegada
+     * El tiempo de tokenizado se acumula en clock
+     */
+    public Flux<JsonNode> decodeArray(Flux<DataBuffer> body, String arrayField, ParseClock clock) {
+        return decodeArrays(body, Set.of(arrayField), clock);
+    }
+
+    /**
+     * Elementos de cualquiera de los arrays de primer nivel indicados, en orden de llegada
+     * El tiempo de tokenizado se acumula en clock
+     */
+    public Flux<JsonNode> decodeArrays(Flux<DataBuffer> body, Set<String> arrayFields, ParseClock clock) {
+        return Flux.defer(() -> {
+            ArrayTokenizer tokenizer = new ArrayTokenizer(arrayFields);
+            return body.concatMapIterable(buffer -> clock.time(() -> tokenizer.feed(buffer)))
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(clock.time(tokenizer::endOfInput))));
+        });
+    }
+
+    /**
+     * Marca que cierra un valor truncado: el consumidor sabe que el texto está incompleto y cuánto falta
+     */
+    static String truncationMarker(int kept, int length) {
+        return " [truncado: " + kept + " de " + length + " caracteres]";
+    }
+
+    /**
+     * Estado del parseo de una respuesta: profundidad actual y el ítem que se está acumulando
+     */
+    private class ArrayTokenizer {
+
+        private final Set<String> arrayFields;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private int depth;
+        private boolean inArray;
+        private TokenBuffer item;
+        private int itemDepth;
+
+        ArrayTokenizer(Set<String> arrayFields) {
+            this.arrayFields = arrayFields;
+            try {
+                this.parser = parserFactory.createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new AdoParsingException("Error creating streaming parser", e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<JsonNode> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (StreamConstraintsException e) {
+                throw oversized(e);
+            } catch (IOException e) {
+                throw new AdoParsingException("Error decoding work items stream", e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<JsonNode> endOfInput() {
+            try {
+                feeder.endOfInput();
+                return drain();
+            } catch (StreamConstraintsException e) {
+                throw oversized(e);
+            } catch (IOException e) {
+                throw new AdoParsingException("Error decoding work items stream", e);
+            }
+        }
+
+        private List<JsonNode> drain() throws IOException {
+            List<JsonNode> completed = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (item != null) {
+                    copy(token);
+                    itemDepth += nesting(token);
+                    if (itemDepth == 0) {
+                        completed.add(objectMapper.readTree(item.asParser(objectMapper)));
+                        item = null;
+                    }
+                    continue;
+                }
+
+                if (inArray && depth == 2 && token == JsonToken.START_OBJECT) {
+                    // La profundidad exterior no cambia mientras se acumula el ítem
+                    item = new TokenBuffer(parser);
+                    item.copyCurrentEvent(parser);
+                    itemDepth = 1;
+                    continue;
+                }
+                if (inArray && depth == 2 && token == JsonToken.END_ARRAY) {
+                    inArray = false;
+                } else if (depth == 1 && token == JsonToken.START_ARRAY && arrayFields.contains(parser.currentName())) {
+                    inArray = true;
+                }
+                depth += nesting(token);
+            }
+            return completed;
+        }
+
+        private AdoParsingException oversized(StreamConstraintsException e) {
+            return new AdoParsingException("ADO response contains a text value longer than "
+                    + maxStringLength + " characters (ado.api.memory.max-string-length)", e);
+        }
+
+        private void copy(JsonToken token) throws IOException {
+            if (token == JsonToken.VALUE_STRING && parser.getTextLength() > maxFieldLength) {
+                truncatedFields.increment();
+                log.warn("Truncated field {} from {} to {} characters", parser.currentName(), parser.getTextLength(), maxFieldLength);
+                item.writeString(truncate(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+                return;
+            }
+            item.copyCurrentEvent(parser);
+        }
+
+        /**
+         * Primeros maxFieldLength caracteres sin partir un par suplente, seguidos de la marca de truncado
+         */
+        private String truncate(char[] text, int offset, int length) {
+            int kept = maxFieldLength;
+            if (kept > 0 && Character.isHighSurrogate(text[offset + kept - 1])) {
+                kept--;
+            }
+            return new String(text, offset, kept) + truncationMarker(kept, length);
+        }
+
+        private int nesting(JsonToken token) {
+            if (token.isStructStart()) {
+                return 1;
+            }
+            return token.isStructEnd() ? -1 : 0;
+        }
+    }
+}
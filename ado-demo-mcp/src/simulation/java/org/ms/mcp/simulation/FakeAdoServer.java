@@ -0,0 +1,425 @@
+package org.ms.mcp.simulation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Azure DevOps simulado sobre reactor-netty con los endpoints que usa AdoWorkflowClient:
+ * - POST wit/wiql: búsqueda de épicas por título, árboles de links recursivos, cambios desde una fecha
+ *   y revalidación de IDs (las formas de WIQL que genera el cliente, no un intérprete general)
+ * - POST wit/workitemsbatch: máximo 200 IDs, proyección de campos y errorPolicy=omit
+ * - GET wit/workitems/{id}
+ * Inyecta latencia (fija + jitter, con una fracción de respuestas lentas), 503 y 429 con Retry-After
+ */
+@Slf4j
+public class FakeAdoServer implements AutoCloseable {
+
+    static final String WIQL = "wiql";
+    static final String WORK_ITEMS_BATCH = "workitemsbatch";
+    static final String WORK_ITEMS = "workitems";
+
+    /** Límites de ADO: IDs por workitemsbatch y resultados por consulta WIQL */
+    private static final int MAX_BATCH_IDS = 200;
+    private static final int MAX_WIQL_RESULTS = 20_000;
+
+    private static final Pattern LINK_SOURCES = Pattern.compile("\\[Source]\\.\\[System\\.Id] IN \\(([^)]*)\\)");
+    private static final Pattern TARGET_TYPES = Pattern.compile(
+            "\\[Target]\\.\\[System\\.WorkItemType] (?:= '([^']*)'|IN \\(([^)]*)\\))");
+    private static final Pattern TITLE_CONTAINS = Pattern.compile("\\[System\\.Title] CONTAINS '([^']*)'");
+    private static final Pattern IDS_IN = Pattern.compile("\\[System\\.Id] IN \\(([^)]*)\\)");
+    private static final Pattern ID_AFTER = Pattern.compile("\\[System\\.Id] > (\\d+)");
+    private static final Pattern WORK_ITEM_TYPES = Pattern.compile(
+            "(?<!\\.)\\[System\\.WorkItemType] (?:= '([^']*)'|IN \\(([^)]*)\\))");
+    private static final Pattern CHANGED_AFTER = Pattern.compile("\\[System\\.ChangedDate] > '([^']*)'");
+    private static final Pattern CHANGED_TIE = Pattern.compile(
+            "\\[System\\.ChangedDate] = '([^']*)' AND \\[System\\.Id] > (\\d+)");
+    private static final Pattern WORK_ITEM_PATH = Pattern.compile("/wit/workitems/(\\d+)$", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Latencia y fallos inyectados
+     */
+    @Data
+    public static class Settings {
+        private int port = 0;
+        /** Latencia base de cada respuesta */
+        private Duration latency = Duration.ofMillis(20);
+        /** Latencia adicional aleatoria uniforme entre 0 y jitter */
+        private Duration jitter = Duration.ofMillis(10);
+        /** Fracción de respuestas que tardan slowLatency (cola larga) */
+        private double slowRate = 0.0;
+        private Duration slowLatency = Duration.ofSeconds(2);
+        /** Fracción de peticiones que fallan con 503 */
+        private double errorRate = 0.0;
+        /** Fracción de peticiones rechazadas con 429 + Retry-After */
+        private double throttleRate = 0.0;
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        static Settings from(SimulationArgs args) {
+            Settings settings = new Settings();
+            settings.setPort(args.getInt("port", settings.getPort()));
+            settings.setLatency(args.getDuration("latency", settings.getLatency()));
+            settings.setJitter(args.getDuration("jitter", settings.getJitter()));
+            settings.setSlowRate(args.getDouble("slow-rate", settings.getSlowRate()));
+            settings.setSlowLatency(args.getDuration("slow-latency", settings.getSlowLatency()));
+            settings.setErrorRate(args.getDouble("error-rate", settings.getErrorRate()));
+            settings.setThrottleRate(args.getDouble("throttle-rate", settings.getThrottleRate()));
+            settings.setRetryAfter(args.getDuration("retry-after", settings.getRetryAfter()));
+            return settings;
+        }
+    }
+
+    /**
+     * Respuesta ya serializada
+     */
+    private record Reply(int status, byte[] body, Map<String, String> headers) {
+    }
+
+    private final Settings settings;
+    private final SimulatedProject project;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final LongAdder errorsInjected = new LongAdder();
+    private final LongAdder throttlesInjected = new LongAdder();
+    private final LongAdder slowInjected = new LongAdder();
+    private DisposableServer server;
+
+    public FakeAdoServer(Settings settings, SimulatedProject project) {
+        this.settings = settings;
+        this.project = project;
+    }
+
+    public FakeAdoServer start() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(settings.getPort())
+                .handle(this::handle)
+                .bindNow();
+        log.info("Fake Azure DevOps listening on {} ({} work items, {} epics)",
+                organizationUrl(), project.size(), project.epicIds().size());
+        return this;
+    }
+
+    /**
+     * URL a usar como ado.organization
+     */
+    public String organizationUrl() {
+        return "http://127.0.0.1:" + server.port() + "/simulated";
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    // =====================================================
+    // DESPACHO E INYECCIÓN DE FALLOS
+    // =====================================================
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+        String endpoint = endpoint(request.method(), uri.path());
+        if (endpoint == null) {
+            return send(response, error(404, "Unknown endpoint " + request.method() + " " + uri.path()));
+        }
+        requests.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+
+        return request.receive().aggregate().asString()
+                .defaultIfEmpty("")
+                .map(body -> {
+                    Reply fault = injectedFault();
+                    return fault != null ? fault : reply(endpoint, uri, body);
+                })
+                .delayUntil(reply -> Mono.delay(latency()))
+                .flatMap(reply -> Mono.from(send(response, reply)));
+    }
+
+    private static String endpoint(HttpMethod method, String path) {
+        String lower = path.toLowerCase();
+        if (HttpMethod.POST.equals(method) && lower.endsWith("/wit/wiql")) {
+            return WIQL;
+        }
+        if (HttpMethod.POST.equals(method) && lower.endsWith("/wit/workitemsbatch")) {
+            return WORK_ITEMS_BATCH;
+        }
+        if (HttpMethod.GET.equals(method) && WORK_ITEM_PATH.matcher(lower).find()) {
+            return WORK_ITEMS;
+        }
+        return null;
+    }
+
+    private Reply injectedFault() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < settings.getThrottleRate()) {
+            throttlesInjected.increment();
+            return new Reply(429, message("TF400733: Request was blocked due to exceeding usage of resource"),
+                    Map.of("Retry-After", String.valueOf(Math.max(1, settings.getRetryAfter().toSeconds())),
+                            "X-RateLimit-Resource", "ATCPU",
+                            "X-RateLimit-Limit", "200",
+                            "X-RateLimit-Remaining", "0"));
+        }
+        if (random.nextDouble() < settings.getErrorRate()) {
+            errorsInjected.increment();
+            return error(503, "Service Unavailable");
+        }
+        return null;
+    }
+
+    private Duration latency() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < settings.getSlowRate()) {
+            slowInjected.increment();
+            return settings.getSlowLatency();
+        }
+        long jitterNanos = settings.getJitter().toNanos();
+        return settings.getLatency().plusNanos(jitterNanos > 0 ? random.nextLong(jitterNanos) : 0);
+    }
+
+    private Reply reply(String endpoint, QueryStringDecoder uri, String body) {
+        try {
+            return switch (endpoint) {
+                case WIQL -> wiql(uri, mapper.readTree(body).path("query").asText());
+                case WORK_ITEMS_BATCH -> workItemsBatch(mapper.readTree(body));
+                default -> workItem(uri);
+            };
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return error(400, "Invalid request: " + e.getMessage());
+        }
+    }
+
+    private static Publisher<Void> send(HttpServerResponse response, Reply reply) {
+        response.status(reply.status()).header("Content-Type", "application/json; charset=utf-8");
+        reply.headers().forEach(response::header);
+        return response.sendByteArray(Mono.just(reply.body()));
+    }
+
+    // =====================================================
+    // WIQL
+    // =====================================================
+
+    private Reply wiql(QueryStringDecoder uri, String query) throws JsonProcessingException {
+        if (query.contains("FROM WorkItemLinks")) {
+            return linkResult(query);
+        }
+
+        List<Long> ids;
+        Matcher matcher;
+        if ((matcher = TITLE_CONTAINS.matcher(query)).find()) {
+            String term = matcher.group(1).toLowerCase();
+            ids = project.epicIds().stream()
+                    .filter(id -> project.title(id).toLowerCase().contains(term))
+                    .sorted(Comparator.comparing(project::createdDate).reversed())
+                    .toList();
+        } else if ((matcher = IDS_IN.matcher(query)).find()) {
+            Instant since = changedAfter(query);
+            ids = parseIds(matcher.group(1)).stream()
+                    .filter(id -> project.contains(id) && (since == null || project.changedDate(id).isAfter(since)))
+                    .toList();
+        } else if ((matcher = CHANGED_TIE.matcher(query)).find()) {
+            // Sincronización incremental: (ChangedDate, ID) posterior a la marca de agua
+            Instant since = Instant.parse(matcher.group(1));
+            long afterId = Long.parseLong(matcher.group(2));
+            ids = project.ids().stream()
+                    .filter(id -> project.changedDate(id).isAfter(since)
+                            || project.changedDate(id).equals(since) && id > afterId)
+                    .sorted(Comparator.comparing(project::changedDate).thenComparing(Comparator.naturalOrder()))
+                    .toList();
+        } else if ((matcher = ID_AFTER.matcher(query)).find()) {
+            // Paginación por conjunto de claves: [System.Id] > último ID ORDER BY [System.Id]
+            long afterId = Long.parseLong(matcher.group(1));
+            Set<String> types = types(WORK_ITEM_TYPES, query);
+            ids = project.ids().stream()
+                    .filter(id -> id > afterId && (types.isEmpty() || types.contains(project.type(id))))
+                    .sorted()
+                    .toList();
+        } else if (changedAfter(query) != null) {
+            Instant since = changedAfter(query);
+            ids = project.ids().stream()
+                    .filter(id -> project.changedDate(id).isAfter(since))
+                    .sorted(Comparator.comparing(project::changedDate))
+                    .toList();
+        } else {
+            return error(400, "Unsupported WIQL query");
+        }
+
+        List<String> top = uri.parameters().get("$top");
+        if (top != null) {
+            ids = ids.subList(0, Math.min(ids.size(), Integer.parseInt(top.get(0))));
+        }
+        if (ids.size() > MAX_WIQL_RESULTS) {
+            return tooManyResults();
+        }
+
+        return ok(SyntheticAdoResponses.wiqlFlat(ids));
+    }
+
+    /**
+     * Árbol de links recursivo: una fila raíz por épica y una por cada descendiente del tipo pedido
+     */
+    private Reply linkResult(String query) throws JsonProcessingException {
+        Matcher sources = LINK_SOURCES.matcher(query);
+        if (!sources.find()) {
+            return error(400, "Unsupported WIQL link query");
+        }
+        ObjectNode result = SyntheticAdoResponses.wiqlLinks(project, parseIds(sources.group(1)), types(TARGET_TYPES, query));
+        if (result.get("workItemRelations").size() > MAX_WIQL_RESULTS) {
+            return tooManyResults();
+        }
+        return ok(result);
+    }
+
+    private static Set<String> types(Pattern pattern, String query) {
+        Matcher matcher = pattern.matcher(query);
+        if (!matcher.find()) {
+            return Set.of();
+        }
+        if (matcher.group(1) != null) {
+            return Set.of(matcher.group(1));
+        }
+        return Arrays.stream(matcher.group(2).split(","))
+                .map(type -> type.trim().replace("'", ""))
+                .collect(Collectors.toSet());
+    }
+
+    private static Instant changedAfter(String query) {
+        Matcher matcher = CHANGED_AFTER.matcher(query);
+        return matcher.find() ? Instant.parse(matcher.group(1)) : null;
+    }
+
+    private Reply tooManyResults() {
+        return error(400, "VS402337: The number of work items returned exceeds the size limit of " + MAX_WIQL_RESULTS);
+    }
+
+    // =====================================================
+    // WORK ITEMS
+    // =====================================================
+
+    private Reply workItemsBatch(JsonNode request) throws JsonProcessingException {
+        JsonNode ids = request.path("ids");
+        if (ids.isEmpty()) {
+            return error(400, "VS403496: The ids parameter is required");
+        }
+        if (ids.size() > MAX_BATCH_IDS) {
+            return error(400, "VS403474: The maximum number of work items that can be requested is " + MAX_BATCH_IDS);
+        }
+        Set<String> fields = new HashSet<>();
+        request.path("fields").forEach(field -> fields.add(field.asText()));
+        boolean omitMissing = "omit".equalsIgnoreCase(request.path("errorPolicy").asText());
+
+        List<Long> requested = new ArrayList<>();
+        for (JsonNode id : ids) {
+            if (!omitMissing && !project.contains(id.asLong())) {
+                return error(404, "TF401232: Work item " + id.asLong() + " does not exist");
+            }
+            requested.add(id.asLong());
+        }
+        return ok(SyntheticAdoResponses.workItemsBatch(project, requested, fields));
+    }
+
+    private Reply workItem(QueryStringDecoder uri) throws JsonProcessingException {
+        Matcher matcher = WORK_ITEM_PATH.matcher(uri.path());
+        ObjectNode item = matcher.find() ? project.item(Long.parseLong(matcher.group(1))) : null;
+        if (item == null) {
+            return error(404, "TF401232: Work item does not exist");
+        }
+        Set<String> fields = new HashSet<>();
+        List<String> fieldsParam = uri.parameters().get("fields");
+        if (fieldsParam != null) {
+            fieldsParam.forEach(value -> fields.addAll(Arrays.asList(value.split(","))));
+        }
+        return ok(SyntheticAdoResponses.workItem(item, fields));
+    }
+
+    private static List<Long> parseIds(String ids) {
+        List<Long> parsed = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.isBlank()) {
+                parsed.add(Long.parseLong(id.trim()));
+            }
+        }
+        return parsed;
+    }
+
+    // =====================================================
+    // RESPUESTAS Y ESTADÍSTICAS
+    // =====================================================
+
+    private Reply ok(JsonNode body) throws JsonProcessingException {
+        return new Reply(200, mapper.writeValueAsBytes(body), Map.of());
+    }
+
+    private Reply error(int status, String message) {
+        return new Reply(status, message(message), Map.of());
+    }
+
+    private byte[] message(String message) {
+        return mapper.createObjectNode()
+                .put("message", message)
+                .put("typeKey", "SimulatedException")
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void printStats(PrintStream out) {
+        Map<String, Long> byEndpoint = new TreeMap<>();
+        requests.forEach((endpoint, count) -> byEndpoint.put(endpoint, count.sum()));
+        out.printf("Fake ADO requests: %s | injected 503: %d, 429: %d, slow: %d%n",
+                byEndpoint, errorsInjected.sum(), throttlesInjected.sum(), slowInjected.sum());
+    }
+
+    // =====================================================
+    // STANDALONE
+    // =====================================================
+
+    /**
+     * ADO simulado standalone: --port, tamaño del proyecto (--epics, --stories-per-epic, --tasks-per-story, --seed)
+     * y fallos (--latency, --jitter, --slow-rate, --slow-latency, --error-rate, --throttle-rate, --retry-after)
+     */
+    public static void main(String[] args) {
+        SimulationArgs simulationArgs = new SimulationArgs(args);
+        Settings settings = Settings.from(simulationArgs);
+        if (!simulationArgs.has("port")) {
+            settings.setPort(18090);
+        }
+        SimulatedProject project = new SyntheticWorkItemGenerator(SyntheticWorkItemGenerator.Settings.from(simulationArgs))
+                .generate();
+        FakeAdoServer server = new FakeAdoServer(settings, project).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.printStats(System.out);
+            server.close();
+        }));
+        server.server.onDispose().block();
+    }
+}
@@ -0,0 +1,100 @@
+package org.ms.mcp.simulation;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Resultados de una prueba de carga: llamadas, errores, throughput y percentiles de latencia por herramienta
+ * Guarda todas las latencias medidas y las ordena al informar (pruebas de minutos: pocos cientos de miles)
+ */
+public class LoadReport {
+
+    private static final String TOTAL = "TOTAL";
+
+    private final Map<String, Samples> tools = new ConcurrentSkipListMap<>();
+    private final Samples total = new Samples();
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    /**
+     * Inicio de la medición (System.nanoTime), tras el calentamiento
+     */
+    void start(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    void record(String tool, long latencyNanos, boolean success) {
+        tools.computeIfAbsent(tool, key -> new Samples()).add(latencyNanos, success);
+        total.add(latencyNanos, success);
+    }
+
+    public long calls() {
+        return total.size();
+    }
+
+    public long errors() {
+        return total.errors();
+    }
+
+    public void print(PrintStream out) {
+        double seconds = Math.max(1e-9, (endNanos - startNanos) / 1e9);
+        out.printf("%-24s %8s %8s %9s %9s %9s %9s%n", "tool", "calls", "errors", "ops/s", "p50 ms", "p99 ms", "max ms");
+        tools.forEach((tool, samples) -> printRow(out, tool, samples, seconds));
+        printRow(out, TOTAL, total, seconds);
+        out.printf("Measured %.1f s%n", seconds);
+    }
+
+    private static void printRow(PrintStream out, String tool, Samples samples, double seconds) {
+        long[] sorted = samples.sorted();
+        out.printf("%-24s %8d %8d %9.1f %9.1f %9.1f %9.1f%n", tool, sorted.length, samples.errors(),
+                sorted.length / seconds, millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 1.0));
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    /**
+     * Latencias en nanosegundos de una herramienta
+     */
+    private static class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long latencyNanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.ms.mcp.simulation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ms.mcp.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prueba de carga extremo a extremo: ADO simulado + servidor MCP en el mismo proceso + driver de carga
+ * Con --mcp-url=http://host:puerto se carga un servidor MCP ya arrancado (y su ADO) en lugar de arrancarlos
+ * Los argumentos --app.x=y se pasan al servidor MCP como --x=y (p.ej. --app.ado.cache.enabled=false)
+ */
+@Slf4j
+public class LoadTestSimulation {
+
+    public static void main(String[] args) {
+        SimulationArgs simulationArgs = new SimulationArgs(args);
+        McpLoadDriver driver = new McpLoadDriver(McpLoadDriver.Settings.from(simulationArgs));
+
+        if (simulationArgs.has("mcp-url")) {
+            driver.run(simulationArgs.getString("mcp-url", null)).print(System.out);
+            System.exit(0);
+        }
+
+        SimulatedProject project = new SyntheticWorkItemGenerator(SyntheticWorkItemGenerator.Settings.from(simulationArgs))
+                .generate();
+        int exitCode = 0;
+        try (FakeAdoServer fakeAdo = new FakeAdoServer(FakeAdoServer.Settings.from(simulationArgs), project).start();
+             ConfigurableApplicationContext app = startMcpServer(fakeAdo, simulationArgs)) {
+            String mcpUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port");
+            LoadReport report = driver.run(mcpUrl);
+            report.print(System.out);
+            fakeAdo.printStats(System.out);
+            exitCode = report.calls() == 0 ? 1 : 0;
+        } catch (RuntimeException e) {
+            log.error("Load test failed", e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext startMcpServer(FakeAdoServer fakeAdo, SimulationArgs args) {
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--ado.organization=" + fakeAdo.organizationUrl(),
+                "--ado.project=" + SyntheticWorkItemGenerator.PROJECT,
+                "--ado.pat-token=simulated",
+                "--logging.level.org.ms.mcp=WARN"));
+        appArgs.addAll(args.appArgs());
+        log.info("Starting MCP server against {} {}", fakeAdo.organizationUrl(), args.appArgs());
+        return new SpringApplicationBuilder(Application.class).run(appArgs.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,263 @@
+package org.ms.mcp.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.transport.WebFluxSseClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Driver de carga MCP: N usuarios virtuales, cada uno con su sesión SSE, llaman en bucle cerrado
+ * a generateReleaseNotes, findEpics y findUserStoriesByEpic según una mezcla ponderada
+ * Las épicas (IDs y títulos) se descubren con findEpics(""), página a página, antes de empezar;
+ * tras el calentamiento se miden las llamadas durante la duración configurada
+ */
+@Slf4j
+public class McpLoadDriver {
+
+    public static final String GENERATE_RELEASE_NOTES = "generateReleaseNotes";
+    public static final String FIND_EPICS = "findEpics";
+    public static final String FIND_USER_STORIES_BY_EPIC = "findUserStoriesByEpic";
+
+    private static final String ARGUMENT = "epicNameOrId";
+    /** Las herramientas de listado devuelven sus errores como JSON con success=false en vez de isError */
+    private static final Pattern FAILURE = Pattern.compile("\"success\"\\s*:\\s*false");
+
+    /**
+     * Carga generada
+     */
+    @Data
+    public static class Settings {
+        /** Usuarios virtuales (sesiones MCP) concurrentes */
+        private int concurrency = 16;
+        private Duration warmup = Duration.ofSeconds(10);
+        private Duration duration = Duration.ofSeconds(30);
+        private Duration requestTimeout = Duration.ofSeconds(60);
+        private long seed = 7;
+        /** Tamaño máximo de un evento SSE (una respuesta de herramienta): el cliente MCP admite 256 KB por defecto */
+        private DataSize maxResponseSize = DataSize.ofMegabytes(64);
+        /** Peso relativo de cada herramienta */
+        private Map<String, Integer> mix = defaultMix();
+
+        static Settings from(SimulationArgs args) {
+            Settings settings = new Settings();
+            settings.setConcurrency(args.getInt("concurrency", settings.getConcurrency()));
+            settings.setWarmup(args.getDuration("warmup", settings.getWarmup()));
+            settings.setDuration(args.getDuration("duration", settings.getDuration()));
+            settings.setRequestTimeout(args.getDuration("request-timeout", settings.getRequestTimeout()));
+            settings.setSeed(args.getLong("load-seed", settings.getSeed()));
+            if (args.has("max-response-size")) {
+                settings.setMaxResponseSize(DataSize.parse(args.getString("max-response-size", "")));
+            }
+            if (args.has("mix")) {
+                settings.setMix(parseMix(args.getString("mix", "")));
+            }
+            return settings;
+        }
+
+        private static Map<String, Integer> defaultMix() {
+            Map<String, Integer> mix = new LinkedHashMap<>();
+            mix.put(GENERATE_RELEASE_NOTES, 1);
+            mix.put(FIND_EPICS, 2);
+            mix.put(FIND_USER_STORIES_BY_EPIC, 2);
+            return mix;
+        }
+
+        /**
+         * Formato herramienta:peso separado por comas (generateReleaseNotes:1,findEpics:2)
+         */
+        private static Map<String, Integer> parseMix(String value) {
+            Map<String, Integer> mix = new LinkedHashMap<>();
+            for (String entry : value.split(",")) {
+                String[] parts = entry.trim().split(":");
+                int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+                if (weight > 0) {
+                    mix.put(parts[0].trim(), weight);
+                }
+            }
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("Empty tool mix: " + value);
+            }
+            return mix;
+        }
+    }
+
+    private record Epic(long id, String title) {
+    }
+
+    private record ToolCall(String tool, McpSchema.CallToolRequest request) {
+    }
+
+    private final Settings settings;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public McpLoadDriver(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Ejecuta la prueba contra el servidor MCP (URL base, sin /sse) y devuelve el informe
+     */
+    public LoadReport run(String mcpUrl) {
+        log.info("Connecting {} MCP sessions to {}", settings.getConcurrency(), mcpUrl);
+        List<McpAsyncClient> clients = Flux.range(0, settings.getConcurrency())
+                .flatMap(i -> connect(mcpUrl))
+                .collectList()
+                .block();
+        try {
+            List<Epic> epics = discoverEpics(clients.get(0)).block();
+            if (epics == null || epics.isEmpty()) {
+                throw new IllegalStateException("findEpics returned no epics; nothing to load test");
+            }
+            log.info("Discovered {} epics, warming up for {} and measuring for {} (mix {})",
+                    epics.size(), settings.getWarmup(), settings.getDuration(), settings.getMix());
+
+            LoadReport report = new LoadReport();
+            long measureFrom = System.nanoTime() + settings.getWarmup().toNanos();
+            long until = measureFrom + settings.getDuration().toNanos();
+            report.start(measureFrom);
+            Flux.range(0, clients.size())
+                    .flatMap(i -> virtualUser(clients.get(i), new Random(settings.getSeed() + i), epics, report,
+                            measureFrom, until), clients.size())
+                    .then()
+                    .block();
+            report.stop();
+            return report;
+        } finally {
+            Flux.fromIterable(clients)
+                    .flatMap(McpAsyncClient::closeGracefully)
+                    .then()
+                    .onErrorResume(error -> Mono.empty())
+                    .block(Duration.ofSeconds(10));
+        }
+    }
+
+    private Mono<McpAsyncClient> connect(String mcpUrl) {
+        WebClient.Builder webClient = WebClient.builder()
+                .baseUrl(mcpUrl)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) settings.getMaxResponseSize().toBytes()));
+        McpAsyncClient client = McpClient.async(WebFluxSseClientTransport.builder(webClient).build())
+                .requestTimeout(settings.getRequestTimeout())
+                .clientInfo(new McpSchema.Implementation("ado-mcp-load-test", "1.0.0"))
+                .build();
+        return client.initialize().thenReturn(client);
+    }
+
+    /**
+     * Recorre todas las páginas de findEpics("") siguiendo nextCursor
+     */
+    private Mono<List<Epic>> discoverEpics(McpAsyncClient client) {
+        return epicsPage(client, null)
+                .expand(page -> page.path("hasMore").asBoolean()
+                        ? epicsPage(client, page.path("nextCursor").asText())
+                        : Mono.empty())
+                .flatMapIterable(page -> page.path("items"))
+                .map(epic -> new Epic(epic.path("id").asLong(), epic.path("title").asText()))
+                .collectList();
+    }
+
+    private Mono<JsonNode> epicsPage(McpAsyncClient client, String cursor) {
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put(ARGUMENT, "");
+        if (cursor != null) {
+            arguments.put("cursor", cursor);
+        }
+        return client.callTool(new McpSchema.CallToolRequest(FIND_EPICS, arguments))
+                .map(result -> readTree(text(result)));
+    }
+
+    // =====================================================
+    // USUARIOS VIRTUALES
+    // =====================================================
+
+    /**
+     * Bucle cerrado: cada usuario lanza la siguiente llamada al terminar la anterior, hasta until;
+     * solo se registran las llamadas iniciadas tras el calentamiento
+     */
+    private Mono<Void> virtualUser(McpAsyncClient client, Random random, List<Epic> epics, LoadReport report,
+                                   long measureFrom, long until) {
+        return Mono.defer(() -> {
+                    ToolCall call = nextCall(random, epics);
+                    long start = System.nanoTime();
+                    return client.callTool(call.request())
+                            .map(McpLoadDriver::isSuccess)
+                            .onErrorResume(error -> {
+                                log.debug("Tool {} failed: {}", call.tool(), error.toString());
+                                return Mono.just(false);
+                            })
+                            .doOnNext(success -> {
+                                if (start >= measureFrom) {
+                                    report.record(call.tool(), System.nanoTime() - start, success);
+                                }
+                            });
+                })
+                .repeat(() -> System.nanoTime() < until)
+                .then();
+    }
+
+    private ToolCall nextCall(Random random, List<Epic> epics) {
+        String tool = pickTool(random);
+        Epic epic = epics.get(random.nextInt(epics.size()));
+        String argument = switch (tool) {
+            // Búsqueda por una palabra del título: suele devolver varias épicas
+            case FIND_EPICS -> epic.title().split(" ")[0];
+            default -> random.nextBoolean() ? String.valueOf(epic.id()) : epic.title();
+        };
+        return new ToolCall(tool, new McpSchema.CallToolRequest(tool, Map.of(ARGUMENT, argument)));
+    }
+
+    private String pickTool(Random random) {
+        int totalWeight = settings.getMix().values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : settings.getMix().entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    // =====================================================
+    // RESULTADOS
+    // =====================================================
+
+    private static boolean isSuccess(McpSchema.CallToolResult result) {
+        return !Boolean.TRUE.equals(result.isError()) && !FAILURE.matcher(text(result)).find();
+    }
+
+    private static String text(McpSchema.CallToolResult result) {
+        StringBuilder text = new StringBuilder();
+        for (McpSchema.Content content : result.content()) {
+            if (content instanceof McpSchema.TextContent textContent) {
+                text.append(textContent.text());
+            }
+        }
+        return text.toString();
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return mapper.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.ms.mcp.simulation;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.ms.mcp.workflows.util.WorkItemFields.CHANGED_DATE;
+import static org.ms.mcp.workflows.util.WorkItemFields.CREATED_DATE;
+import static org.ms.mcp.workflows.util.WorkItemFields.TITLE;
+import static org.ms.mcp.workflows.util.WorkItemFields.WORK_ITEM_TYPE;
+
+/**
+ * Proyecto de Azure DevOps en memoria: work items completos (forma de workitemsbatch) y su jerarquía
+ * Se construye una vez (SyntheticWorkItemGenerator) y después solo se lee, desde varios hilos
+ */
+public final class SimulatedProject {
+
+    private final Map<Long, ObjectNode> items = new LinkedHashMap<>();
+    private final Map<Long, List<Long>> children = new HashMap<>();
+    private final List<Long> epicIds = new ArrayList<>();
+
+    void add(ObjectNode item, Long parentId) {
+        long id = item.get("id").asLong();
+        items.put(id, item);
+        if (parentId == null) {
+            epicIds.add(id);
+        } else {
+            children.computeIfAbsent(parentId, key -> new ArrayList<>()).add(id);
+        }
+    }
+
+    /**
+     * Work item completo, o null si no existe
+     */
+    public ObjectNode item(long id) {
+        return items.get(id);
+    }
+
+    public boolean contains(long id) {
+        return items.containsKey(id);
+    }
+
+    public String type(long id) {
+        return field(id, WORK_ITEM_TYPE);
+    }
+
+    public String title(long id) {
+        return field(id, TITLE);
+    }
+
+    public Instant createdDate(long id) {
+        return Instant.parse(field(id, CREATED_DATE));
+    }
+
+    public Instant changedDate(long id) {
+        return Instant.parse(field(id, CHANGED_DATE));
+    }
+
+    /**
+     * Hijos directos (historias de una épica, tareas de una historia)
+     */
+    public List<Long> children(long id) {
+        return children.getOrDefault(id, List.of());
+    }
+
+    /**
+     * Todos los descendientes (historias y tareas) en profundidad, como los recorre un WIQL recursivo
+     */
+    public List<Long> descendants(long id) {
+        List<Long> descendants = new ArrayList<>();
+        for (Long child : children(id)) {
+            descendants.add(child);
+            descendants.addAll(descendants(child));
+        }
+        return descendants;
+    }
+
+    public List<Long> epicIds() {
+        return Collections.unmodifiableList(epicIds);
+    }
+
+    public Collection<Long> ids() {
+        return Collections.unmodifiableSet(items.keySet());
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    private String field(long id, String name) {
+        return items.get(id).get("fields").get(name).asText();
+    }
+}
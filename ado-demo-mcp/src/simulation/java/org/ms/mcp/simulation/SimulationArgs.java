@@ -0,0 +1,66 @@
+package org.ms.mcp.simulation;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Argumentos de línea de comandos de la simulación (--clave=valor)
+ * Las duraciones aceptan el formato de application.yaml (20ms, 30s, 1m)
+ */
+final class SimulationArgs {
+
+    /** Prefijo de los argumentos que se reenvían al servidor MCP arrancado por la simulación */
+    private static final String APP_PREFIX = "app.";
+
+    private final SimpleCommandLinePropertySource source;
+
+    SimulationArgs(String... args) {
+        this.source = new SimpleCommandLinePropertySource(args);
+    }
+
+    boolean has(String name) {
+        return source.containsProperty(name);
+    }
+
+    String getString(String name, String defaultValue) {
+        String value = source.getProperty(name);
+        return value != null ? value : defaultValue;
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = source.getProperty(name);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = source.getProperty(name);
+        return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = source.getProperty(name);
+        return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+
+    Duration getDuration(String name, Duration defaultValue) {
+        String value = source.getProperty(name);
+        return value != null ? DurationStyle.detectAndParse(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Argumentos --app.x=y convertidos en --x=y para el servidor MCP (p.ej. --app.ado.cache.enabled=false)
+     */
+    List<String> appArgs() {
+        List<String> appArgs = new ArrayList<>();
+        for (String name : source.getPropertyNames()) {
+            if (name.startsWith(APP_PREFIX)) {
+                appArgs.add("--" + name.substring(APP_PREFIX.length()) + "=" + source.getProperty(name));
+            }
+        }
+        return appArgs;
+    }
+}
@@ -0,0 +1,135 @@
+package org.ms.mcp.simulation;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Respuestas de ADO sobre un SimulatedProject con la forma exacta que consume AdoResponseParser
+ * (y el WorkItemStreamDecoder): WIQL plano, WIQL de links recursivo y workitemsbatch con proyección de campos
+ * Las usan el FakeAdoServer y los benchmarks de escala
+ */
+public final class SyntheticAdoResponses {
+
+    public static final String HIERARCHY_FORWARD = "System.LinkTypes.Hierarchy-Forward";
+
+    private SyntheticAdoResponses() {
+    }
+
+    /**
+     * WIQL plano (queryType flat) con los IDs en el orden dado
+     */
+    public static ObjectNode wiqlFlat(List<Long> ids) {
+        ObjectNode result = wiqlResult("flat", "workItem");
+        result.putArray("columns").addObject()
+                .put("referenceName", "System.Id")
+                .put("name", "ID")
+                .put("url", "https://dev.azure.com/simulated/_apis/wit/fields/System.Id");
+        ArrayNode workItems = result.putArray("workItems");
+        ids.forEach(id -> workItems.add(reference(id)));
+        return result;
+    }
+
+    /**
+     * WIQL de links recursivo (queryType tree): una fila raíz por origen (rel y source nulos) y una fila
+     * Hierarchy-Forward por cada descendiente de los tipos indicados (todos si no se indica ninguno)
+     */
+    public static ObjectNode wiqlLinks(SimulatedProject project, Collection<Long> sourceIds, Set<String> targetTypes) {
+        ObjectNode result = wiqlResult("tree", "workItemLink");
+        ArrayNode relations = result.putArray("workItemRelations");
+        for (Long sourceId : sourceIds) {
+            if (project.contains(sourceId)) {
+                ObjectNode root = relations.addObject();
+                root.putNull("rel");
+                root.putNull("source");
+                root.set("target", reference(sourceId));
+                addDescendants(project, relations, sourceId, targetTypes);
+            }
+        }
+        return result;
+    }
+
+    private static void addDescendants(SimulatedProject project, ArrayNode relations, long parentId, Set<String> targetTypes) {
+        for (Long childId : project.children(parentId)) {
+            if (targetTypes.isEmpty() || targetTypes.contains(project.type(childId))) {
+                ObjectNode relation = relations.addObject();
+                relation.put("rel", HIERARCHY_FORWARD);
+                relation.set("source", reference(parentId));
+                relation.set("target", reference(childId));
+            }
+            addDescendants(project, relations, childId, targetTypes);
+        }
+    }
+
+    /**
+     * Respuesta de workitemsbatch: los work items existentes, en orden, con los campos pedidos
+     * (todos si no se pide ninguno); los inexistentes se omiten como con errorPolicy=omit
+     */
+    public static ObjectNode workItemsBatch(SimulatedProject project, Collection<Long> ids, Collection<String> fields) {
+        Set<String> wanted = new HashSet<>(fields);
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        ArrayNode values = JsonNodeFactory.instance.arrayNode();
+        for (Long id : ids) {
+            ObjectNode item = project.item(id);
+            if (item != null) {
+                values.add(workItem(item, wanted));
+            }
+        }
+        result.put("count", values.size());
+        result.set("value", values);
+        return result;
+    }
+
+    /**
+     * Las respuestas de workitemsbatch con que el cliente trae los IDs indicados, en lotes de batchSize
+     */
+    public static List<ObjectNode> workItemsBatches(SimulatedProject project, List<Long> ids, Collection<String> fields,
+                                                    int batchSize) {
+        List<ObjectNode> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            batches.add(workItemsBatch(project, ids.subList(from, Math.min(ids.size(), from + batchSize)), fields));
+        }
+        return batches;
+    }
+
+    /**
+     * Copia del work item con solo los campos pedidos (el propio work item si no se pide ninguno)
+     */
+    public static ObjectNode workItem(ObjectNode item, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return item;
+        }
+        ObjectNode projected = JsonNodeFactory.instance.objectNode();
+        projected.set("id", item.get("id"));
+        projected.set("rev", item.get("rev"));
+        ObjectNode projectedFields = projected.putObject("fields");
+        item.get("fields").properties().forEach(field -> {
+            if (fields.contains(field.getKey())) {
+                projectedFields.set(field.getKey(), field.getValue());
+            }
+        });
+        projected.set("url", item.get("url"));
+        return projected;
+    }
+
+    private static ObjectNode wiqlResult(String queryType, String queryResultType) {
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        result.put("queryType", queryType);
+        result.put("queryResultType", queryResultType);
+        result.put("asOf", Instant.now().toString());
+        return result;
+    }
+
+    private static ObjectNode reference(long id) {
+        return JsonNodeFactory.instance.objectNode()
+                .put("id", id)
+                .put("url", SyntheticWorkItemGenerator.ITEM_URL + id);
+    }
+}
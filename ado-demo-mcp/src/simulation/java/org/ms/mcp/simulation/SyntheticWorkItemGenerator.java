@@ -0,0 +1,265 @@
+package org.ms.mcp.simulation;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.ms.mcp.workflows.util.WorkItemFields.*;
+
+/**
+ * Genera un proyecto sintético de épicas -> historias -> tareas con la forma real de los work items de ADO
+ * (identidades completas, descripciones y criterios en HTML, áreas, iteraciones y fechas ISO-8601)
+ * Fan-out y tamaño de los campos configurables, p.ej. 1 épica x 5.000 historias x 10 tareas;
+ * determinista: la misma configuración produce los mismos IDs, textos y fechas
+ * Las respuestas de ADO (WIQL y workitemsbatch) sobre el proyecto las construye SyntheticAdoResponses
+ */
+public class SyntheticWorkItemGenerator {
+
+    public static final String ITEM_URL = "https://dev.azure.com/simulated/_apis/wit/workItems/";
+
+    public static final String PROJECT = "Simulated";
+    private static final Instant BASE_DATE = Instant.parse("2024-01-01T08:00:00Z");
+
+    private static final List<String> THEMES = List.of(
+            "Plataforma de pagos", "Portal de clientes", "Migración a la nube", "Motor de recomendaciones",
+            "Facturación electrónica", "Aplicación móvil", "Integración con ERP", "Observabilidad",
+            "Gestión de identidades", "Catálogo de productos", "Notificaciones push", "Cuadro de mando");
+    private static final List<String> ACTIONS = List.of(
+            "consultar mis pedidos", "descargar la factura", "recibir avisos", "filtrar resultados",
+            "exportar a Excel", "cambiar mi contraseña", "ver el historial", "compartir un informe");
+    private static final List<String> TASK_VERBS = List.of(
+            "Implementar", "Diseñar", "Probar", "Documentar", "Revisar", "Desplegar");
+    private static final List<String> COMPONENTS = List.of(
+            "endpoint REST", "modelo de datos", "pantalla", "validaciones", "caché", "migración de BD");
+    private static final List<String> SENTENCES = List.of(
+            "El usuario necesita acceder a la información sin salir de la aplicación",
+            "La respuesta debe mostrarse en menos de dos segundos con 10.000 registros",
+            "Se reutiliza el componente existente y se amplía su contrato",
+            "Los errores de validación se muestran junto a cada campo",
+            "El cambio requiere coordinarse con el equipo de datos antes del despliegue",
+            "La funcionalidad queda detrás de un feature flag hasta su validación");
+    private static final List<String> FIRST_NAMES = List.of(
+            "Ana", "Luis", "María", "Carlos", "Lucía", "Jorge", "Elena", "Pablo", "Sofía", "Diego");
+    private static final List<String> LAST_NAMES = List.of(
+            "García", "Pérez", "López", "Ruiz", "Martín", "Sánchez", "Gómez", "Díaz", "Moreno", "Álvarez");
+    private static final List<String> TEAMS = List.of("Backend", "Frontend", "Datos", "Plataforma", "Móvil", "QA");
+    private static final List<String> STATES = List.of("New", "Active", "Resolved", "Closed");
+    private static final List<String> ACTIVITIES = List.of("Development", "Testing", "Design", "Documentation");
+
+    /**
+     * Tamaño del proyecto y de los campos generados
+     */
+    @Data
+    public static class Settings {
+        private int epics = 20;
+        private int storiesPerEpic = 10;
+        private int tasksPerStory = 4;
+        /** Variación aleatoria del fan-out (0..1): cada nodo tiene entre n·(1-v) y n·(1+v) hijos */
+        private double fanOutVariance = 0.0;
+        /** Tipo de las historias: Issue (proceso Basic, el que consulta el cliente) o User Story (Agile) */
+        private String storyType = "Issue";
+        /** Longitud aproximada en caracteres del HTML de System.Description */
+        private int descriptionLength = 600;
+        /** Longitud aproximada en caracteres del HTML de los criterios de aceptación */
+        private int acceptanceCriteriaLength = 300;
+        /** Personas distintas en AssignedTo/CreatedBy/ChangedBy */
+        private int people = 25;
+        /** Áreas distintas (equipo\componente) */
+        private int areas = 12;
+        private long firstId = 1;
+        private long seed = 42;
+
+        static Settings from(SimulationArgs args) {
+            Settings settings = new Settings();
+            settings.setEpics(args.getInt("epics", settings.getEpics()));
+            settings.setStoriesPerEpic(args.getInt("stories-per-epic", settings.getStoriesPerEpic()));
+            settings.setTasksPerStory(args.getInt("tasks-per-story", settings.getTasksPerStory()));
+            settings.setFanOutVariance(args.getDouble("fan-out-variance", settings.getFanOutVariance()));
+            settings.setStoryType(args.getString("story-type", settings.getStoryType()));
+            settings.setDescriptionLength(args.getInt("description-length", settings.getDescriptionLength()));
+            settings.setAcceptanceCriteriaLength(args.getInt("acceptance-criteria-length",
+                    settings.getAcceptanceCriteriaLength()));
+            settings.setPeople(args.getInt("people", settings.getPeople()));
+            settings.setAreas(args.getInt("areas", settings.getAreas()));
+            settings.setFirstId(args.getLong("first-id", settings.getFirstId()));
+            settings.setSeed(args.getLong("seed", settings.getSeed()));
+            return settings;
+        }
+    }
+
+    private final Settings settings;
+    private final List<ObjectNode> identities = new ArrayList<>();
+    private final List<String> areaPaths = new ArrayList<>();
+
+    public SyntheticWorkItemGenerator(Settings settings) {
+        this.settings = settings;
+        // Las identidades se comparten entre work items: nunca se modifican y así pesan una sola vez
+        for (int i = 0; i < Math.max(1, settings.getPeople()); i++) {
+            String name = FIRST_NAMES.get(i % FIRST_NAMES.size()) + " "
+                    + LAST_NAMES.get((i / FIRST_NAMES.size() + i) % LAST_NAMES.size());
+            identities.add(identity(i, i < FIRST_NAMES.size() * LAST_NAMES.size() ? name : name + " " + i));
+        }
+        for (int i = 0; i < Math.max(1, settings.getAreas()); i++) {
+            areaPaths.add(PROJECT + "\\" + TEAMS.get(i % TEAMS.size()) + "\\"
+                    + COMPONENTS.get(i % COMPONENTS.size()) + (i >= TEAMS.size() * COMPONENTS.size() ? " " + i : ""));
+        }
+    }
+
+    /**
+     * Proyecto de una sola épica con el fan-out indicado (escenarios de escala: 1 x 5.000 x 10)
+     */
+    public static SimulatedProject singleEpic(int stories, int tasksPerStory) {
+        Settings settings = new Settings();
+        settings.setEpics(1);
+        settings.setStoriesPerEpic(stories);
+        settings.setTasksPerStory(tasksPerStory);
+        return new SyntheticWorkItemGenerator(settings).generate();
+    }
+
+    public SimulatedProject generate() {
+        Random random = new Random(settings.getSeed());
+        SimulatedProject project = new SimulatedProject();
+        long nextId = settings.getFirstId();
+        for (int e = 0; e < settings.getEpics(); e++) {
+            long epicId = nextId++;
+            String theme = THEMES.get(e % THEMES.size()) + " " + (e / THEMES.size() + 1);
+            project.add(workItem(random, epicId, "Epic", theme, null), null);
+
+            int stories = fanOut(random, settings.getStoriesPerEpic());
+            for (int s = 0; s < stories; s++) {
+                long storyId = nextId++;
+                String title = "Como usuario quiero " + pick(random, ACTIONS) + " (" + theme + ")";
+                project.add(workItem(random, storyId, settings.getStoryType(), title, epicId), epicId);
+
+                int tasks = fanOut(random, settings.getTasksPerStory());
+                for (int t = 0; t < tasks; t++) {
+                    long taskId = nextId++;
+                    String taskTitle = pick(random, TASK_VERBS) + " " + pick(random, COMPONENTS) + " #" + taskId;
+                    project.add(workItem(random, taskId, "Task", taskTitle, storyId), storyId);
+                }
+            }
+        }
+        return project;
+    }
+
+    private int fanOut(Random random, int base) {
+        double variance = Math.max(0, Math.min(1, settings.getFanOutVariance()));
+        if (variance == 0 || base == 0) {
+            return base;
+        }
+        return (int) Math.round(base * (1 - variance + 2 * variance * random.nextDouble()));
+    }
+
+    // =====================================================
+    // WORK ITEMS
+    // =====================================================
+
+    private ObjectNode workItem(Random random, long id, String type, String title, Long parentId) {
+        Instant created = BASE_DATE.plus(Duration.ofSeconds(random.nextInt(365 * 24 * 3600)))
+                .plusMillis(random.nextInt(1000));
+        Instant changed = created.plus(Duration.ofSeconds(random.nextInt(60 * 24 * 3600)));
+        int rev = 1 + random.nextInt(12);
+
+        int area = random.nextInt(areaPaths.size());
+
+        ObjectNode item = JsonNodeFactory.instance.objectNode();
+        item.put("id", id);
+        item.put("rev", rev);
+        ObjectNode fields = item.putObject("fields");
+        fields.put("System.Id", id);
+        fields.put("System.AreaId", 1000 + area);
+        fields.put(AREA_PATH, areaPaths.get(area));
+        fields.put(TEAM_PROJECT, PROJECT);
+        fields.put("System.Rev", rev);
+        fields.put("System.AuthorizedDate", changed.toString());
+        fields.put("System.RevisedDate", "9999-01-01T00:00:00Z");
+        fields.put("System.IterationPath", PROJECT + "\\Sprint " + (1 + random.nextInt(30)));
+        fields.put(WORK_ITEM_TYPE, type);
+        fields.put(STATE, pick(random, STATES));
+        fields.put("System.Reason", "Moved to state " + fields.get(STATE).asText());
+        fields.set(ASSIGNED_TO, pick(random, identities));
+        fields.put(CREATED_DATE, created.toString());
+        fields.set("System.CreatedBy", pick(random, identities));
+        fields.put(CHANGED_DATE, changed.toString());
+        fields.set("System.ChangedBy", pick(random, identities));
+        fields.put("System.CommentCount", random.nextInt(8));
+        fields.put(TITLE, title);
+        fields.put(DESCRIPTION, html(random, title, settings.getDescriptionLength()));
+        fields.put(PRIORITY, 1 + random.nextInt(4));
+        fields.put("System.Tags", pick(random, TEAMS) + "; " + pick(random, COMPONENTS));
+        if (parentId != null) {
+            fields.put(PARENT, parentId);
+        }
+
+        switch (type) {
+            case "Epic" -> {
+                fields.put(BUSINESS_VALUE, 10 * (1 + random.nextInt(10)));
+                fields.put(START_DATE, created.toString());
+                fields.put(TARGET_DATE, created.plus(Duration.ofDays(90 + random.nextInt(180))).toString());
+                fields.put(ACCEPTANCE_CRITERIA, html(random, "Criterios de " + title, settings.getAcceptanceCriteriaLength()));
+            }
+            case "Task" -> {
+                double estimate = 1 + random.nextInt(16);
+                double completed = Math.floor(estimate * random.nextDouble());
+                fields.put(ORIGINAL_ESTIMATE, estimate);
+                fields.put(COMPLETED_WORK, completed);
+                fields.put(REMAINING_WORK, estimate - completed);
+                fields.put(ACTIVITY, pick(random, ACTIVITIES));
+            }
+            default -> {
+                fields.put(STORY_POINTS, (double) (1 + random.nextInt(13)));
+                fields.put(RISK, (1 + random.nextInt(3)) + " - " + pick(random, List.of("High", "Medium", "Low")));
+                fields.put(ACCEPTANCE_CRITERIA, html(random, "Dado un usuario autenticado, cuando " + title,
+                        settings.getAcceptanceCriteriaLength()));
+            }
+        }
+        item.putObject("_links").putObject("self").put("href", ITEM_URL + id);
+        item.put("url", ITEM_URL + id);
+        return item;
+    }
+
+    private static ObjectNode identity(int index, String displayName) {
+        String id = String.format("6f1c2d3e-%04x-4a5b-8c7d-%012x", index, 0x111111111111L * (index % 15 + 1));
+        String avatar = "https://dev.azure.com/simulated/_apis/GraphProfile/MemberAvatars/aad." + id;
+        ObjectNode identity = JsonNodeFactory.instance.objectNode();
+        identity.put("displayName", displayName);
+        identity.put("url", "https://spsprodweu5.vssps.visualstudio.com/A1b2c3/_apis/Identities/" + id);
+        identity.putObject("_links").putObject("avatar").put("href", avatar);
+        identity.put("id", id);
+        identity.put("uniqueName", displayName.toLowerCase().replace(' ', '.') + "@contoso.com");
+        identity.put("imageUrl", avatar);
+        identity.put("descriptor", "aad." + id);
+        return identity;
+    }
+
+    /**
+     * HTML como el que guarda el editor de ADO (div, párrafos, listas, negritas, entidades) de unos length caracteres
+     */
+    private static String html(Random random, String title, int length) {
+        StringBuilder html = new StringBuilder("<div><p><strong>").append(title).append("</strong></p>");
+        while (html.length() < length) {
+            if (random.nextBoolean()) {
+                html.append("<p>").append(pick(random, SENTENCES)).append(".&nbsp;")
+                        .append(pick(random, SENTENCES)).append(".</p>");
+            } else {
+                html.append("<ul>");
+                for (int i = 0; i < 3; i++) {
+                    html.append("<li>").append(pick(random, TASK_VERBS)).append(' ')
+                            .append(pick(random, COMPONENTS)).append("</li>");
+                }
+                html.append("</ul>");
+            }
+        }
+        return html.append("</div>").toString();
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,51 @@
+package org.ms.mcp.workflows.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdoCallPolicyTest {
+
+    private static WebClientResponseException status(int status) {
+        return WebClientResponseException.create(status, "status " + status, null, null, null);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {408, 500, 502, 503, 504})
+    void transientStatusesAreRetried(int status) {
+        assertThat(AdoCallPolicy.isRetryable(status(status))).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {400, 401, 403, 404, 429, 501})
+    void clientErrorsThrottlingAndNotImplementedAreNotRetried(int status) {
+        assertThat(AdoCallPolicy.isRetryable(status(status))).isFalse();
+    }
+
+    @Test
+    void connectionFailuresAndTimeoutsAreRetried() {
+        WebClientRequestException connect = new WebClientRequestException(new ConnectException("refused"),
+                HttpMethod.POST, URI.create("https://dev.azure.com/org/_apis/wit/wiql"), HttpHeaders.EMPTY);
+
+        assertThat(AdoCallPolicy.isRetryable(connect)).isTrue();
+        assertThat(AdoCallPolicy.isRetryable(new IOException("Connection prematurely closed BEFORE response"))).isTrue();
+        assertThat(AdoCallPolicy.isRetryable(new TimeoutException())).isTrue();
+    }
+
+    @Test
+    void parsingAndProgrammingErrorsAreNotRetried() {
+        assertThat(AdoCallPolicy.isRetryable(new AdoParsingException("bad json", null))).isFalse();
+        assertThat(AdoCallPolicy.isRetryable(new IllegalStateException())).isFalse();
+    }
+}
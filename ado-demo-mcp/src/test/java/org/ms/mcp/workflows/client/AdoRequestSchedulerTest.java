@@ -0,0 +1,183 @@
+package org.ms.mcp.workflows.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.exception.AdoWorkflowException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdoRequestSchedulerTest {
+
+    private static final ClientRequest REQUEST =
+            ClientRequest.create(HttpMethod.POST, URI.create("https://dev.azure.com/org/_apis/wit/wiql")).build();
+
+    private AdoConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new AdoConfiguration();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private AdoRequestScheduler scheduler() {
+        return new AdoRequestScheduler(config, meterRegistry);
+    }
+
+    private static ClientResponse response(HttpStatus status, String... headers) {
+        ClientResponse.Builder builder = ClientResponse.create(status, ExchangeStrategies.withDefaults());
+        for (int i = 0; i < headers.length; i += 2) {
+            builder.header(headers[i], headers[i + 1]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Responde con las respuestas indicadas en orden (la última se repite) y cuenta las llamadas
+     */
+    private static ExchangeFunction respondWith(AtomicInteger calls, ClientResponse... responses) {
+        return request -> Mono.fromSupplier(() -> responses[Math.min(calls.getAndIncrement(), responses.length - 1)]);
+    }
+
+    private static int status(AdoRequestScheduler scheduler, ExchangeFunction next) {
+        return scheduler.filter(REQUEST, next).block().statusCode().value();
+    }
+
+    private static long elapsedMillis(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+
+    @Test
+    void healthyResponsesRaiseTheLimitAdditivelyUpToTheMaximum() {
+        config.getScheduler().setInitialLimit(2);
+        config.getScheduler().setMaxLimit(3);
+        AdoRequestScheduler scheduler = scheduler();
+        ExchangeFunction ok = respondWith(new AtomicInteger(), response(HttpStatus.OK));
+
+        status(scheduler, ok);
+        assertThat(scheduler.currentLimit()).isEqualTo(2);
+        status(scheduler, ok);
+        status(scheduler, ok);
+        status(scheduler, ok);
+
+        assertThat(scheduler.currentLimit()).isEqualTo(3);
+        assertThat(scheduler.inFlight()).isZero();
+    }
+
+    @Test
+    void rateLimitSignalsHalveTheLimitOncePerBurst() {
+        AdoRequestScheduler scheduler = scheduler();
+        ExchangeFunction nearLimit = respondWith(new AtomicInteger(),
+                response(HttpStatus.OK, "X-RateLimit-Remaining", "5", "X-RateLimit-Limit", "100"));
+
+        status(scheduler, nearLimit);
+        status(scheduler, nearLimit);
+
+        assertThat(scheduler.currentLimit()).isEqualTo(4);
+        assertThat(meterRegistry.counter("ado.scheduler.throttled").count()).isEqualTo(2);
+    }
+
+    @Test
+    void retryAfterHoldsBackTheFollowingRequests() {
+        AdoRequestScheduler scheduler = scheduler();
+        status(scheduler, respondWith(new AtomicInteger(), response(HttpStatus.OK, "Retry-After", "0.3")));
+
+        long waited = elapsedMillis(() -> status(scheduler, respondWith(new AtomicInteger(), response(HttpStatus.OK))));
+
+        assertThat(waited).isGreaterThanOrEqualTo(250);
+    }
+
+    @Test
+    void positiveRateLimitDelayPausesLikeRetryAfter() {
+        AdoRequestScheduler scheduler = scheduler();
+        status(scheduler, respondWith(new AtomicInteger(), response(HttpStatus.OK, "X-RateLimit-Delay", "0.3")));
+
+        long waited = elapsedMillis(() -> status(scheduler, respondWith(new AtomicInteger(), response(HttpStatus.OK))));
+
+        assertThat(waited).isGreaterThanOrEqualTo(250);
+        assertThat(scheduler.currentLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void throttledRequestIsRetriedAfterTheWait() {
+        AtomicInteger calls = new AtomicInteger();
+        ExchangeFunction next = respondWith(calls,
+                response(HttpStatus.TOO_MANY_REQUESTS, "Retry-After", "0.2"),
+                response(HttpStatus.SERVICE_UNAVAILABLE, "Retry-After", "0"),
+                response(HttpStatus.OK));
+        AdoRequestScheduler scheduler = scheduler();
+
+        long waited = elapsedMillis(() -> assertThat(status(scheduler, next)).isEqualTo(200));
+
+        assertThat(calls).hasValue(3);
+        assertThat(waited).isGreaterThanOrEqualTo(150);
+        assertThat(meterRegistry.counter("ado.scheduler.throttle.retries").count()).isEqualTo(2);
+    }
+
+    @Test
+    void throttleRetriesAreBounded() {
+        config.getScheduler().setMaxThrottleRetries(2);
+        AtomicInteger calls = new AtomicInteger();
+        AdoRequestScheduler scheduler = scheduler();
+
+        assertThat(status(scheduler, respondWith(calls, response(HttpStatus.TOO_MANY_REQUESTS, "Retry-After", "0")))).isEqualTo(429);
+        assertThat(calls).hasValue(3);
+
+        AtomicInteger unavailableCalls = new AtomicInteger();
+        assertThat(status(scheduler, respondWith(unavailableCalls, response(HttpStatus.SERVICE_UNAVAILABLE)))).isEqualTo(503);
+        assertThat(unavailableCalls).as("503 sin Retry-After no es throttling").hasValue(1);
+    }
+
+    @Test
+    void requestsQueueWithoutPermitsAndAreRejectedWhenTheQueueIsFull() {
+        config.getScheduler().setInitialLimit(1);
+        config.getScheduler().setMaxLimit(1);
+        config.getScheduler().setMaxQueue(1);
+        AdoRequestScheduler scheduler = scheduler();
+        List<Sinks.One<ClientResponse>> pending = new ArrayList<>();
+        ExchangeFunction slow = request -> {
+            Sinks.One<ClientResponse> sink = Sinks.one();
+            pending.add(sink);
+            return sink.asMono();
+        };
+
+        Mono<ClientResponse> first = scheduler.filter(REQUEST, slow).cache();
+        Mono<ClientResponse> second = scheduler.filter(REQUEST, slow).cache();
+        first.subscribe();
+        second.subscribe();
+
+        assertThat(scheduler.inFlight()).isEqualTo(1);
+        assertThat(scheduler.queueDepth()).isEqualTo(1);
+        assertThatThrownBy(() -> scheduler.filter(REQUEST, slow).block())
+                .isInstanceOf(AdoWorkflowException.class)
+                .hasMessageContaining("llena");
+
+        pending.get(0).tryEmitValue(response(HttpStatus.OK));
+        assertThat(first.block().statusCode().value()).isEqualTo(200);
+        assertThat(scheduler.queueDepth()).isZero();
+        assertThat(pending).hasSize(2);
+
+        pending.get(1).tryEmitValue(response(HttpStatus.OK));
+        assertThat(second.block().statusCode().value()).isEqualTo(200);
+        assertThat(scheduler.inFlight()).isZero();
+    }
+}
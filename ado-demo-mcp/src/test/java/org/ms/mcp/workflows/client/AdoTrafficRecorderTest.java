@@ -0,0 +1,87 @@
+package org.ms.mcp.workflows.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.ms.mcp.config.AdoConfiguration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdoTrafficRecorderTest {
+
+    @TempDir
+    Path dir;
+
+    private AdoTrafficRecorder recorder(AdoConfiguration.Traffic.Mode mode) {
+        AdoConfiguration config = new AdoConfiguration();
+        config.getTraffic().setMode(mode);
+        config.getTraffic().setFile(dir.resolve("traffic.jsonl.gz").toString());
+        return new AdoTrafficRecorder(config);
+    }
+
+    private static ClientRequest request(String path) {
+        return ClientRequest.create(HttpMethod.POST, URI.create("https://dev.azure.com" + path))
+                .body(BodyInserters.fromValue("{\"ids\":[1]}"))
+                .build();
+    }
+
+    private static ExchangeFunction respondWith(HttpStatus status, String body) {
+        return request -> Mono.just(ClientResponse.create(status, ExchangeStrategies.withDefaults())
+                .header("X-RateLimit-Resource", "ATCPU", "ATDB")
+                .body(Flux.<DataBuffer>just(DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8))))
+                .build());
+    }
+
+    private static ExchangeFunction respondWithoutEnd(String firstChunk) {
+        return request -> Mono.just(ClientResponse.create(HttpStatus.OK, ExchangeStrategies.withDefaults())
+                .body(Flux.concat(Flux.<DataBuffer>just(DefaultDataBufferFactory.sharedInstance.wrap(
+                        firstChunk.getBytes(StandardCharsets.UTF_8))), Flux.never()))
+                .build());
+    }
+
+    private static ExchangeFunction offline() {
+        return request -> {
+            throw new AssertionError("REPLAY must not reach the network");
+        };
+    }
+
+    @Test
+    void releasedAndCancelledBodiesAndEveryHeaderValueAreRecorded() {
+        AdoTrafficRecorder recording = recorder(AdoConfiguration.Traffic.Mode.RECORD);
+        recording.filter(request("/_apis/wit/workitemsbatch"), respondWith(HttpStatus.OK, "{\"value\":[]}"))
+                .flatMap(response -> response.bodyToMono(String.class))
+                .block();
+        recording.filter(request("/_apis/wit/wiql"), respondWith(HttpStatus.TOO_MANY_REQUESTS, ""))
+                .flatMap(ClientResponse::releaseBody)
+                .block();
+        recording.filter(request("/_apis/wit/workitems/7"), respondWithoutEnd("{\"id\""))
+                .flatMapMany(response -> response.bodyToFlux(DataBuffer.class))
+                .subscribe()
+                .dispose();
+        recording.close();
+
+        AdoTrafficRecorder replay = recorder(AdoConfiguration.Traffic.Mode.REPLAY);
+        ClientResponse batch = replay.filter(request("/_apis/wit/workitemsbatch"), offline()).block();
+        ClientResponse throttled = replay.filter(request("/_apis/wit/wiql"), offline()).block();
+        ClientResponse cancelled = replay.filter(request("/_apis/wit/workitems/7"), offline()).block();
+
+        assertThat(batch.bodyToMono(String.class).block()).isEqualTo("{\"value\":[]}");
+        assertThat(batch.headers().header("X-RateLimit-Resource")).containsExactly("ATCPU", "ATDB");
+        assertThat(throttled.statusCode().value()).isEqualTo(429);
+        assertThat(cancelled.bodyToMono(String.class).block()).isEqualTo("{\"id\"");
+    }
+}
@@ -0,0 +1,116 @@
+package org.ms.mcp.workflows.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightRequestsTest {
+
+    private InFlightRequests inFlightRequests;
+    private AtomicInteger subscriptions;
+    private AtomicBoolean cancelled;
+    private Sinks.One<String> response;
+
+    @BeforeEach
+    void setUp() {
+        inFlightRequests = new InFlightRequests(new SimpleMeterRegistry());
+        subscriptions = new AtomicInteger();
+        cancelled = new AtomicBoolean();
+        response = Sinks.one();
+    }
+
+    private Mono<String> call() {
+        return inFlightRequests.coalesce("key", () -> response.asMono()
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                .doOnCancel(() -> cancelled.set(true)));
+    }
+
+    @Test
+    void concurrentCallersShareOneRequest() {
+        Mono<String> first = call();
+        Mono<String> second = call();
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> response.tryEmitValue("value"))
+                .assertNext(values -> {
+                    assertThat(values.getT1()).isEqualTo("value");
+                    assertThat(values.getT2()).isEqualTo("value");
+                })
+                .verifyComplete();
+        assertThat(subscriptions).hasValue(1);
+        assertThat(inFlightRequests.size()).isZero();
+    }
+
+    @Test
+    void valueEmittedWhileJoiningIsReplayed() {
+        // La petición responde de forma síncrona al arrancar: el llamador se suscribe al resultado ya emitido
+        response.tryEmitValue("value");
+
+        StepVerifier.create(call()).expectNext("value").verifyComplete();
+    }
+
+    @Test
+    void keyIsReleasedBeforeTheValueIsDelivered() {
+        int[] keysWhenDelivered = {-1};
+        call().subscribe(value -> keysWhenDelivered[0] = inFlightRequests.size());
+
+        response.tryEmitValue("value");
+
+        assertThat(keysWhenDelivered[0]).isZero();
+    }
+
+    @Test
+    void completedRequestIsNotCached() {
+        response.tryEmitValue("value");
+        StepVerifier.create(call()).expectNext("value").verifyComplete();
+        StepVerifier.create(call()).expectNext("value").verifyComplete();
+
+        assertThat(subscriptions).hasValue(2);
+    }
+
+    @Test
+    void emptyAndErrorResultsAreSharedToo() {
+        Mono<String> first = call();
+        Mono<String> second = call();
+        response.tryEmitError(new IllegalStateException("boom"));
+
+        StepVerifier.create(first).verifyErrorMessage("boom");
+        StepVerifier.create(second).verifyErrorMessage("boom");
+    }
+
+    @Test
+    void requestIsCancelledOnlyWhenEveryCallerCancels() {
+        Disposable first = call().subscribe();
+        String[] second = new String[1];
+        Disposable secondSubscription = call().subscribe(value -> second[0] = value);
+
+        first.dispose();
+        assertThat(cancelled).isFalse();
+
+        secondSubscription.dispose();
+        assertThat(cancelled).isTrue();
+        assertThat(inFlightRequests.size()).isZero();
+        assertThat(second[0]).isNull();
+    }
+
+    @Test
+    void callerAfterCancellationStartsANewRequest() {
+        call().subscribe().dispose();
+        Mono<String> next = call();
+
+        StepVerifier.create(next)
+                .then(() -> response.tryEmitValue("value"))
+                .expectNext("value")
+                .verifyComplete();
+        assertThat(subscriptions).hasValue(2);
+    }
+}
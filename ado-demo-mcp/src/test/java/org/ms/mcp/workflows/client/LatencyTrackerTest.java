@@ -0,0 +1,44 @@
+package org.ms.mcp.workflows.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyTrackerTest {
+
+    private static void recordMillis(LatencyTracker tracker, long... millis) {
+        for (long value : millis) {
+            tracker.record(Duration.ofMillis(value));
+        }
+    }
+
+    @Test
+    void emptyWindowHasZeroPercentiles() {
+        LatencyTracker tracker = new LatencyTracker(4);
+
+        assertThat(tracker.size()).isZero();
+        assertThat(tracker.percentile(0.95)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void percentileUsesTheNearestRank() {
+        LatencyTracker tracker = new LatencyTracker(10);
+        recordMillis(tracker, 50, 10, 40, 20, 30);
+
+        assertThat(tracker.percentile(0.5)).isEqualTo(Duration.ofMillis(30));
+        assertThat(tracker.percentile(0.95)).isEqualTo(Duration.ofMillis(50));
+        assertThat(tracker.percentile(0)).isEqualTo(Duration.ofMillis(10));
+        assertThat(tracker.percentile(1)).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void windowKeepsOnlyTheLatestSamples() {
+        LatencyTracker tracker = new LatencyTracker(3);
+        recordMillis(tracker, 1_000, 900, 10, 20, 30);
+
+        assertThat(tracker.size()).isEqualTo(3);
+        assertThat(tracker.percentile(1)).isEqualTo(Duration.ofMillis(30));
+    }
+}
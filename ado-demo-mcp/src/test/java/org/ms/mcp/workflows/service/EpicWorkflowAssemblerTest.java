@@ -0,0 +1,111 @@
+package org.ms.mcp.workflows.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ms.mcp.workflows.client.AdoCallStats;
+import org.ms.mcp.workflows.client.AdoWorkflowClient;
+import org.ms.mcp.workflows.client.WorkflowStages;
+import org.ms.mcp.workflows.dto.EpicInfo;
+import org.ms.mcp.workflows.dto.EpicWorkflowResult;
+import org.ms.mcp.workflows.exception.AdoWorkflowException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EpicWorkflowAssemblerTest {
+
+    private static final List<EpicInfo> EPICS = List.of(epic(1), epic(2), epic(3), epic(4));
+
+    private AdoWorkflowClient client;
+    private EpicWorkflowAssembler assembler;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(AdoWorkflowClient.class);
+        assembler = new EpicWorkflowAssembler(client);
+        when(client.findEpicsByName("release")).thenReturn(Mono.just(EPICS));
+    }
+
+    private static EpicInfo epic(long id) {
+        return EpicInfo.builder().id(id).title("Epic " + id).build();
+    }
+
+    private static AdoWorkflowException adoError(HttpStatus status) {
+        return new AdoWorkflowException("ADO " + status.value(),
+                WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null));
+    }
+
+    @Test
+    void resultCopiesTheOutcomeListsAndCarriesTheErrors() {
+        List<EpicWorkflowResult.EpicData> epics = new ArrayList<>(List.of(EpicWorkflowResult.EpicData.builder().epic(epic(1)).build()));
+        List<Long> missing = new ArrayList<>(List.of(2L));
+        EpicWorkflowAssembler.Outcome outcome = new EpicWorkflowAssembler.Outcome(epics, missing, "ADO 503");
+
+        EpicWorkflowResult result = outcome.toResult("BY_PARTIAL_NAME", "release", System.currentTimeMillis(),
+                new AdoCallStats(), new WorkflowStages());
+        epics.clear();
+        missing.clear();
+
+        assertThat(result.getSearchType()).isEqualTo("BY_PARTIAL_NAME");
+        assertThat(result.getEpics()).hasSize(1);
+        assertThat(result.getMetadata().getMissingEpicIds()).containsExactly(2L);
+        assertThat(result.getMetadata().isHasErrors()).isTrue();
+        assertThat(result.getMetadata().getErrorMessage()).isEqualTo("ADO 503");
+    }
+
+    @Test
+    void throttledSetFetchIsNotRetriedEpicByEpic() {
+        when(client.getCompleteEpicWorkflows(EPICS)).thenReturn(Mono.error(adoError(HttpStatus.TOO_MANY_REQUESTS)));
+
+        EpicWorkflowAssembler.Outcome outcome = assembler.byName("release").block();
+
+        assertThat(outcome.epics()).isEmpty();
+        assertThat(outcome.missingEpicIds()).containsExactly(1L, 2L, 3L, 4L);
+        verify(client, never()).getCompleteEpicWorkflows(argThat(epics -> epics.size() == 1));
+    }
+
+    @Test
+    void unavailableSetFetchIsNotRetriedEpicByEpic() {
+        when(client.getCompleteEpicWorkflows(EPICS)).thenReturn(Mono.error(adoError(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        EpicWorkflowAssembler.Outcome outcome = assembler.byName("release").block();
+
+        assertThat(outcome.hasErrors()).isTrue();
+        verify(client, never()).getCompleteEpicWorkflows(argThat(epics -> epics.size() == 1));
+    }
+
+    @Test
+    void rejectedSetFetchIsRetriedEpicByEpicWithBoundedConcurrency() {
+        when(client.getCompleteEpicWorkflows(EPICS)).thenReturn(Mono.error(adoError(HttpStatus.BAD_REQUEST)));
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        for (EpicInfo epic : EPICS) {
+            Mono<List<EpicWorkflowResult.EpicData>> single = epic.getId() == 3
+                    ? Mono.error(adoError(HttpStatus.BAD_REQUEST))
+                    : Mono.just(List.of(EpicWorkflowResult.EpicData.builder().epic(epic).build()));
+            when(client.getCompleteEpicWorkflows(List.of(epic))).thenReturn(Mono.defer(() -> {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        return single.delaySubscription(Duration.ofMillis(20));
+                    })
+                    .doOnTerminate(active::decrementAndGet));
+        }
+
+        EpicWorkflowAssembler.Outcome outcome = assembler.byName("release").block();
+
+        assertThat(outcome.epics()).extracting(data -> data.getEpic().getId()).containsExactly(1L, 2L, 4L);
+        assertThat(outcome.missingEpicIds()).containsExactly(3L);
+        assertThat(maxActive.get()).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,147 @@
+package org.ms.mcp.workflows.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.dto.EpicInfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class EpicTitleIndexTest {
+
+    private static final String PROJECT = "marcoLabs";
+
+    private AdoConfiguration config;
+    private EpicTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        config = new AdoConfiguration();
+        config.setProject(PROJECT);
+        index = new EpicTitleIndex(config, mock(WorkItemCache.class));
+    }
+
+    private static EpicInfo epic(long id, String title) {
+        return epic(id, title, PROJECT);
+    }
+
+    private static EpicInfo epic(long id, String title, String project) {
+        return EpicInfo.builder().id(id).title(title).teamProject(project)
+                .createdDate(LocalDateTime.of(2025, 1, 1, 0, 0).plusDays(id))
+                .build();
+    }
+
+    @Test
+    void searchIgnoresCaseAndAccentsAndRanksByRelevance() {
+        index.replaceAll(List.of(
+                epic(1, "Migración de pagos"),
+                epic(2, "Pagos"),
+                epic(3, "Portal de clientes"),
+                epic(4, "Pagos recurrentes"),
+                epic(5, "Subpagos internos")), Instant.now());
+
+        assertThat(index.search("PAGOS")).containsExactly(2L, 4L, 1L, 5L);
+        assertThat(index.search("migracion")).containsExactly(1L);
+        assertThat(index.search("zzz")).isEmpty();
+    }
+
+    @Test
+    void wiqlResultsAreSortedLikeTheLocalSearch() {
+        List<EpicInfo> epics = List.of(
+                epic(1, "Migración de pagos"),
+                epic(5, "Subpagos internos"),
+                epic(4, "Pagos recurrentes"),
+                epic(2, "Pagos"));
+
+        assertThat(EpicTitleIndex.sortByRelevance(epics, "PAGOS")).extracting(EpicInfo::getId)
+                .containsExactly(2L, 4L, 1L, 5L);
+    }
+
+    /**
+     * Una épica que sale del índice mientras se ordena una búsqueda no la rompe
+     */
+    @Test
+    void searchToleratesConcurrentRemovals() throws Exception {
+        List<EpicInfo> epics = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            epics.add(epic(id, "Pagos " + id));
+        }
+        index.replaceAll(epics, Instant.now());
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int round = 0; running.get(); round++) {
+                    String project = round % 2 == 0 ? "otroProyecto" : PROJECT;
+                    index.putAll(epics.stream().map(epic -> epic(epic.getId(), epic.getTitle(), project)).toList());
+                }
+            });
+            long deadline = System.nanoTime() + Duration.ofMillis(300).toNanos();
+            while (System.nanoTime() < deadline) {
+                assertThat(index.search("pagos")).hasSizeLessThanOrEqualTo(200);
+            }
+            running.set(false);
+            writer.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shortQueriesScanEveryTitle() {
+        index.replaceAll(List.of(epic(1, "API"), epic(2, "Rapid"), epic(3, "Web")), Instant.now());
+
+        assertThat(index.search("ap")).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void renamedEpicIsFoundOnlyByItsNewTitle() {
+        index.putAll(List.of(epic(1, "Portal antiguo")));
+        index.putAll(List.of(epic(1, "Portal renovado")));
+
+        assertThat(index.search("antiguo")).isEmpty();
+        assertThat(index.search("renovado")).containsExactly(1L);
+    }
+
+    @Test
+    void epicsOfOtherProjectsAreNotIndexed() {
+        index.replaceAll(List.of(epic(1, "Pagos"), epic(2, "Pagos", "otherProject")), Instant.now());
+        assertThat(index.search("pagos")).containsExactly(1L);
+
+        index.putAll(List.of(epic(1, "Pagos", "otherProject")));
+        assertThat(index.search("pagos")).isEmpty();
+    }
+
+    @Test
+    void completeListingDropsEpicsThatWereNotListed() {
+        index.putAll(List.of(epic(1, "Pagos"), epic(2, "Pagos recurrentes"), epic(3, "Portal")));
+
+        index.completeListing(Set.of(1L, 3L), Instant.now());
+
+        assertThat(index.isAuthoritative()).isTrue();
+        assertThat(index.idsAfter(0, 10)).containsExactly(1L, 3L);
+        assertThat(index.idsAfter(1, 10)).containsExactly(3L);
+    }
+
+    @Test
+    void listingOlderThanTheTtlIsNotAuthoritative() {
+        config.getTitleIndex().setTtl(Duration.ofMinutes(10));
+
+        index.replaceAll(List.of(epic(1, "Pagos")), Instant.now().minus(Duration.ofMinutes(11)));
+
+        assertThat(index.isAuthoritative()).isFalse();
+    }
+}
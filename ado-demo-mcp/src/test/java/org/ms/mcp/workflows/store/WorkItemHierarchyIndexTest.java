@@ -0,0 +1,193 @@
+package org.ms.mcp.workflows.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.dto.ParsedWorkItems;
+import org.ms.mcp.workflows.dto.TaskInfo;
+import org.ms.mcp.workflows.dto.UserStoryInfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkItemHierarchyIndexTest {
+
+    private AdoConfiguration config;
+    private WorkItemHierarchyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        config = new AdoConfiguration();
+        index = new WorkItemHierarchyIndex(config);
+    }
+
+    /**
+     * Épica 1 -> historias 10 y 11; historia 10 -> tareas 100 y 101
+     */
+    private void indexEpicOne(Instant at) {
+        Map<Long, Long> links = new LinkedHashMap<>();
+        links.put(10L, 1L);
+        links.put(100L, 10L);
+        links.put(101L, 10L);
+        links.put(11L, 1L);
+        index.index(List.of(1L), links, items(List.of(10L, 11L), List.of(100L, 101L)), at);
+    }
+
+    private static ParsedWorkItems items(List<Long> storyIds, List<Long> taskIds) {
+        ParsedWorkItems items = ParsedWorkItems.builder().build();
+        storyIds.forEach(id -> items.add(UserStoryInfo.builder().id(id).build()));
+        taskIds.forEach(id -> items.add(TaskInfo.builder().id(id).build()));
+        return items;
+    }
+
+    @Test
+    void resolvesDescendantsByKindInPreorder() {
+        indexEpicOne(Instant.now());
+
+        assertThat(index.isFresh(1L)).isTrue();
+        assertThat(index.descendants(List.of(1L), WorkItemHierarchyIndex.Kind.USER_STORY)).containsExactly(10L, 11L);
+        assertThat(index.descendants(List.of(1L), WorkItemHierarchyIndex.Kind.TASK)).containsExactly(100L, 101L);
+        assertThat(index.parentLinks(List.of(1L))).containsExactly(
+                Map.entry(10L, 1L), Map.entry(100L, 10L), Map.entry(101L, 10L), Map.entry(11L, 1L));
+    }
+
+    @Test
+    void reindexingDropsItemsNoLongerInTheSubtree() {
+        indexEpicOne(Instant.now());
+
+        index.index(List.of(1L), Map.of(11L, 1L), items(List.of(11L), List.of()), Instant.now());
+
+        assertThat(index.parentLinks(List.of(1L))).containsExactly(Map.entry(11L, 1L));
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void itemMovedToAnotherEpicInvalidatesItsPreviousSubtree() {
+        indexEpicOne(Instant.now());
+
+        index.index(List.of(2L), Map.of(10L, 2L), items(List.of(10L), List.of()), Instant.now());
+
+        assertThat(index.isFresh(1L)).isFalse();
+        assertThat(index.isFresh(2L)).isTrue();
+        assertThat(index.parentLinks(List.of(2L))).containsExactly(Map.entry(10L, 2L));
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredSubtreesAreEvictedOnTheNextIndexing() {
+        config.getHierarchy().setTtl(Duration.ofMinutes(2));
+        indexEpicOne(Instant.now().minus(Duration.ofMinutes(5)));
+        assertThat(index.isFresh(1L)).isFalse();
+
+        index.index(List.of(2L), Map.of(20L, 2L), items(List.of(20L), List.of()), Instant.now());
+
+        assertThat(index.parentLinks(List.of(1L))).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void oldestSubtreesAreEvictedOverCapacity() {
+        config.getHierarchy().setMaxItems(6);
+        indexEpicOne(Instant.now().minusSeconds(10));
+
+        index.index(List.of(2L), Map.of(20L, 2L, 21L, 2L), items(List.of(20L, 21L), List.of()), Instant.now());
+
+        assertThat(index.isFresh(1L)).isFalse();
+        assertThat(index.isFresh(2L)).isTrue();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void parentChangeInvalidatesTheAffectedSubtree() {
+        indexEpicOne(Instant.now());
+
+        index.onParentChanged(100L, 10L);
+        assertThat(index.isFresh(1L)).isTrue();
+
+        index.onParentChanged(100L, 11L);
+        assertThat(index.isFresh(1L)).isFalse();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void freshDescendantsRequireEveryEpicToBeFresh() {
+        indexEpicOne(Instant.now());
+
+        assertThat(index.freshDescendants(List.of(1L), WorkItemHierarchyIndex.Kind.TASK)).contains(List.of(100L, 101L));
+        assertThat(index.freshDescendants(List.of(1L, 2L), WorkItemHierarchyIndex.Kind.TASK)).isEmpty();
+        assertThat(index.freshParentLinks(1L)).hasValueSatisfying(links -> assertThat(links).hasSize(4));
+        assertThat(index.freshParentLinks(2L)).isEmpty();
+    }
+
+    /**
+     * Mientras otro hilo reindexa la épica y otras épicas, cada lectura ve el subárbol completo o ninguno
+     */
+    @Test
+    void concurrentIndexingNeverExposesAPartialSubtree() throws Exception {
+        config.getHierarchy().setMaxItems(1_000_000);
+        indexEpicOne(Instant.now());
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger partialReads = new AtomicInteger();
+        AtomicInteger freshReads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                // IDs de épica lejos de los de la épica 1 y sus descendientes
+                for (long epic = 1_000; running.get(); epic++) {
+                    indexEpicOne(Instant.now());
+                    index.index(List.of(epic), Map.of(epic * 1_000, epic), items(List.of(epic * 1_000), List.of()), Instant.now());
+                }
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 2; reader++) {
+                readers.add(executor.submit(() -> {
+                    while (running.get()) {
+                        index.freshDescendants(List.of(1L), WorkItemHierarchyIndex.Kind.USER_STORY).ifPresent(stories -> {
+                            freshReads.incrementAndGet();
+                            if (!stories.equals(List.of(10L, 11L))) {
+                                partialReads.incrementAndGet();
+                            }
+                        });
+                        index.freshParentLinks(1L).ifPresent(links -> {
+                            if (links.size() != 4) {
+                                partialReads.incrementAndGet();
+                            }
+                        });
+                    }
+                }));
+            }
+            Thread.sleep(300);
+            running.set(false);
+            writer.get(5, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(freshReads.get()).isPositive();
+        assertThat(partialReads.get()).isZero();
+    }
+
+    @Test
+    void disabledIndexIsNeverFresh() {
+        config.getHierarchy().setEnabled(false);
+        indexEpicOne(Instant.now());
+
+        assertThat(index.isFresh(1L)).isFalse();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,105 @@
+package org.ms.mcp.workflows.sync;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.client.AdoWorkflowClient;
+import org.ms.mcp.workflows.dto.ParsedWorkItems;
+import org.ms.mcp.workflows.dto.TaskInfo;
+import org.ms.mcp.workflows.dto.UserStoryInfo;
+import org.ms.mcp.workflows.store.WorkItemCache;
+import org.ms.mcp.workflows.store.WorkItemHierarchyIndex;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WorkItemSyncServiceTest {
+
+    private static final LocalDateTime SAME_INSTANT = LocalDateTime.of(2026, 3, 2, 10, 15, 30, 123_000_000);
+
+    private AdoConfiguration config;
+    private AdoWorkflowClient client;
+    private WorkItemCache cache;
+    private WorkItemHierarchyIndex hierarchyIndex;
+    private WorkItemSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new AdoConfiguration();
+        config.getSync().setMaxItemsPerPoll(3);
+        client = mock(AdoWorkflowClient.class);
+        cache = mock(WorkItemCache.class);
+        hierarchyIndex = mock(WorkItemHierarchyIndex.class);
+        service = new WorkItemSyncService(config, client, cache, hierarchyIndex, new SimpleMeterRegistry());
+    }
+
+    private static ParsedWorkItems tasksChangedAtTheSameInstant(long... ids) {
+        ParsedWorkItems items = ParsedWorkItems.builder().build();
+        for (long id : ids) {
+            items.add(TaskInfo.builder().id(id).changedDate(SAME_INSTANT).build());
+        }
+        return items;
+    }
+
+    @Test
+    void syncDoesNotStartWithoutTheCache() {
+        config.getSync().setEnabled(true);
+        when(cache.isEnabled()).thenReturn(false);
+
+        service.start();
+
+        verifyNoInteractions(client);
+        assertThat(service.status()).containsEntry("watermark", null);
+    }
+
+    @Test
+    void truncatedPassContinuesAfterTheLastChangeAndId() {
+        when(client.getWorkItemsChangedSince(any(), anyLong(), anyInt()))
+                .thenReturn(Mono.just(tasksChangedAtTheSameInstant(30, 10, 20)));
+
+        service.poll().block();
+
+        assertThat(service.status()).containsEntry("watermark", SAME_INSTANT.toInstant(ZoneOffset.UTC))
+                .containsEntry("watermarkId", 30L);
+
+        service.poll().block();
+        verify(client).getWorkItemsChangedSince(eq(SAME_INSTANT.toInstant(ZoneOffset.UTC)), eq(30L), eq(3));
+    }
+
+    @Test
+    void completePassResetsTheTiebreak() {
+        when(client.getWorkItemsChangedSince(any(), anyLong(), anyInt()))
+                .thenReturn(Mono.just(tasksChangedAtTheSameInstant(30, 10, 20)))
+                .thenReturn(Mono.just(tasksChangedAtTheSameInstant(40)));
+
+        service.poll().block();
+        service.poll().block();
+
+        assertThat(service.status()).containsEntry("watermarkId", 0L).containsEntry("lastPollItems", 1);
+    }
+
+    @Test
+    void indexFollowsTheDirectParentEvenWhenItIsNotAnEpic() {
+        ParsedWorkItems items = ParsedWorkItems.builder().build();
+        items.add(UserStoryInfo.builder().id(10L).parentId(5L).changedDate(SAME_INSTANT).build());
+        items.add(TaskInfo.builder().id(100L).parentId(10L).changedDate(SAME_INSTANT).build());
+        when(client.getWorkItemsChangedSince(any(), anyLong(), anyInt())).thenReturn(Mono.just(items));
+
+        service.poll().block();
+
+        verify(hierarchyIndex).onParentChanged(10L, 5L);
+        verify(hierarchyIndex).onParentChanged(100L, 10L);
+    }
+}
@@ -0,0 +1,74 @@
+package org.ms.mcp.workflows.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdoDateParserTest {
+
+    /**
+     * Formas que devuelve ADO: el camino rápido debe dar lo mismo que la cadena de formatters
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-03-15T10:20:30Z",
+            "2024-03-15T10:20:30.1Z",
+            "2024-03-15T10:20:30.123Z",
+            "2024-03-15T10:20:30.1234567Z",
+            "2024-03-15T10:20:30.123456789Z",
+            "2024-03-15T10:20:30",
+            "2024-03-15T10:20:30.5",
+            "2024-03-15T10:20",
+            "2024-03-15T10:20:30+02:00",
+            "2024-03-15T10:20:30.25-05:30",
+            "2024-03-15T10:20:30+01:00:15",
+            "2024-03-15T10:20:30+18:00",
+            "2024-02-29T23:59:59.999Z"
+    })
+    void fastPathMatchesTheFormatterChain(String text) {
+        LocalDateTime fast = AdoDateParser.parseIso(text);
+
+        assertThat(fast).isNotNull().isEqualTo(AdoDateParser.parseWithFormatters(text));
+        assertThat(AdoDateParser.parse(text)).isEqualTo(fast);
+    }
+
+    /**
+     * Formas que el camino rápido no acepta: decide la cadena de formatters, con su resolución
+     * (p.ej. 24:00 pasa al día siguiente), de modo que parse no cambia respecto a la versión sin camino rápido
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-02-30T10:20:30Z",
+            "2024-13-01T10:20:30Z",
+            "2024-03-15T24:00:00Z",
+            "2024-03-15T10:20:30.Z",
+            "2024-03-15T10:20:30+19:00",
+            "2024-03-15T10:20:30+02:60",
+            "2024-03-15T10:20:30.1234567890Z"
+    })
+    void fastPathDefersEdgeCasesToTheFormatterChain(String text) {
+        assertThat(AdoDateParser.parseIso(text)).isNull();
+        assertThat(AdoDateParser.parse(text)).isEqualTo(AdoDateParser.parseWithFormatters(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-03-15T10:20:30 garbage", "2024-03-15", "15/03/2024 10:20", "2024-03-15T1O:20"})
+    void unrecognizedTextsAreNull(String text) {
+        assertThat(AdoDateParser.parse(text)).isNull();
+    }
+
+    @Test
+    void offsetIsNotApplied() {
+        assertThat(AdoDateParser.parse("2024-03-15T10:20:30+02:00")).isEqualTo(LocalDateTime.of(2024, 3, 15, 10, 20, 30));
+    }
+
+    @Test
+    void blankTextIsNull() {
+        assertThat(AdoDateParser.parse(null)).isNull();
+        assertThat(AdoDateParser.parse("  ")).isNull();
+    }
+}
@@ -0,0 +1,56 @@
+package org.ms.mcp.workflows.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.ms.mcp.workflows.exception.AdoWorkflowException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    private static String base64(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTripsTheLastId() {
+        String cursor = PageCursor.encode("epics", 4_294_967_296L);
+
+        assertThat(cursor).doesNotContain("epics").matches("[A-Za-z0-9_-]+");
+        assertThat(PageCursor.decode("epics", cursor)).isEqualTo(4_294_967_296L);
+        assertThat(PageCursor.decode("epics", " " + cursor + "\n")).isEqualTo(4_294_967_296L);
+    }
+
+    @Test
+    void missingCursorStartsFromTheFirstPage() {
+        assertThat(PageCursor.decode("epics", null)).isZero();
+        assertThat(PageCursor.decode("epics", "")).isZero();
+        assertThat(PageCursor.decode("epics", "  ")).isZero();
+    }
+
+    @Test
+    void cursorOfAnotherListingIsRejected() {
+        String cursor = PageCursor.encode("userStories", 10);
+
+        assertThatThrownBy(() -> PageCursor.decode("epics", cursor))
+                .isInstanceOf(AdoWorkflowException.class)
+                .hasMessageContaining("epics");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "djE6ZXBpY3M", "v1:epics:10"})
+    void malformedCursorsAreRejected(String cursor) {
+        assertThatThrownBy(() -> PageCursor.decode("epics", cursor)).isInstanceOf(AdoWorkflowException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"v2:epics:10", "v1:epics:ten", "v1:epics:10:extra", "v1::10"})
+    void tamperedTokensAreRejected(String token) {
+        assertThatThrownBy(() -> PageCursor.decode("epics", base64(token))).isInstanceOf(AdoWorkflowException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package org.ms.mcp.workflows.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkItemFieldTableTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tabla sobre un mapa en lugar de un builder de Lombok: cada setter guarda el valor convertido
+     */
+    private final WorkItemFieldTable<Map<String, Object>> table = new WorkItemFieldTable<Map<String, Object>>()
+            .text("text", (values, value) -> values.put("text", value))
+            .integer("integer", (values, value) -> values.put("integer", value))
+            .longValue("long", (values, value) -> values.put("long", value))
+            .decimal("decimal", (values, value) -> values.put("decimal", value))
+            .dateTime("date", (values, value) -> values.put("date", value))
+            .identity("identity", (values, value) -> values.put("identity", value));
+
+    private Map<String, Object> apply(String fields) throws Exception {
+        Map<String, Object> values = new HashMap<>();
+        table.apply(objectMapper.readTree(fields), values);
+        return values;
+    }
+
+    @Test
+    void convertsEachRegisteredField() throws Exception {
+        Map<String, Object> values = apply("""
+                {"text": "Pagos", "integer": 5, "long": 123456789012, "decimal": 2.5,
+                 "date": "2024-03-15T10:20:30.123Z", "identity": {"displayName": "Ana García", "uniqueName": "ana@x"}}
+                """);
+
+        assertThat(values)
+                .containsEntry("text", "Pagos")
+                .containsEntry("integer", 5)
+                .containsEntry("long", 123456789012L)
+                .containsEntry("decimal", 2.5)
+                .containsEntry("date", LocalDateTime.of(2024, 3, 15, 10, 20, 30, 123_000_000))
+                .containsEntry("identity", "Ana García");
+    }
+
+    @Test
+    void numbersSentAsTextAreConverted() throws Exception {
+        assertThat(apply("{\"integer\": \"3\", \"text\": 7}"))
+                .containsEntry("integer", 3)
+                .containsEntry("text", "7");
+    }
+
+    @Test
+    void unknownAndNullFieldsAreSkipped() throws Exception {
+        assertThat(apply("{\"System.Rev\": 4, \"text\": null, \"date\": null}")).isEmpty();
+    }
+
+    @Test
+    void identityWithoutDisplayNameIsNull() throws Exception {
+        assertThat(apply("{\"identity\": {\"uniqueName\": \"ana@x\"}}")).containsEntry("identity", null);
+    }
+
+    @Test
+    void missingFieldsObjectLeavesTheBuilderUntouched() {
+        Map<String, Object> values = new HashMap<>();
+
+        table.apply((JsonNode) null, values);
+
+        assertThat(values).isEmpty();
+    }
+}
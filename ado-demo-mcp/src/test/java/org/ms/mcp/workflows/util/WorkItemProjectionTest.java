@@ -0,0 +1,56 @@
+package org.ms.mcp.workflows.util;
+
+import org.junit.jupiter.api.Test;
+import org.ms.mcp.workflows.dto.EpicInfo;
+import org.ms.mcp.workflows.dto.TaskInfo;
+import org.ms.mcp.workflows.dto.UserStoryInfo;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkItemProjectionTest {
+
+    private static final LocalDateTime CHANGED = LocalDateTime.of(2026, 3, 2, 10, 15, 30);
+
+    private static UserStoryInfo fullStory() {
+        return UserStoryInfo.builder().id(10L).title("Cobro").state("Active").description("<p>html</p>")
+                .assignedTo("Ana").areaPath("area").createdDate(CHANGED).changedDate(CHANGED)
+                .acceptanceCriteria("<ul></ul>").storyPoints(5).priority("2").riskLevel("High")
+                .parentId(5L).parentEpicId(1L).build();
+    }
+
+    @Test
+    void summaryDropsDescriptionsFromCachedItems() {
+        UserStoryInfo story = (UserStoryInfo) WorkItemProjection.SUMMARY.restrict(fullStory());
+
+        assertThat(story.getDescription()).isNull();
+        assertThat(story.getAcceptanceCriteria()).isNull();
+        assertThat(story.getRiskLevel()).isNull();
+        assertThat(story.getParentId()).isNull();
+        assertThat(story).extracting(UserStoryInfo::getId, UserStoryInfo::getTitle, UserStoryInfo::getStoryPoints,
+                UserStoryInfo::getChangedDate, UserStoryInfo::getParentEpicId).containsExactly(10L, "Cobro", 5, CHANGED, 1L);
+    }
+
+    @Test
+    void epicsAndTasksKeepOnlyTheProjectedFields() {
+        EpicInfo epic = (EpicInfo) WorkItemProjection.SUMMARY.restrict(EpicInfo.builder().id(1L).teamProject("marcoLabs")
+                .title("Pagos").description("<p>html</p>").businessValue("400").build());
+        TaskInfo task = (TaskInfo) WorkItemProjection.SUMMARY.restrict(TaskInfo.builder().id(100L).title("Api")
+                .description("<p>html</p>").remainingWork(2.5).activity("Development").priority("1").build());
+
+        assertThat(epic).extracting(EpicInfo::getTitle, EpicInfo::getTeamProject, EpicInfo::getDescription, EpicInfo::getBusinessValue)
+                .containsExactly("Pagos", null, null, null);
+        assertThat(task).extracting(TaskInfo::getTitle, TaskInfo::getDescription, TaskInfo::getRemainingWork, TaskInfo::getPriority)
+                .containsExactly("Api", null, null, "1");
+    }
+
+    @Test
+    void coveringProjectionsReturnTheSameInstance() {
+        UserStoryInfo story = fullStory();
+
+        assertThat(WorkItemProjection.USER_STORY.restrict(story)).isSameAs(story);
+        assertThat(WorkItemProjection.HIERARCHY.restrict(story)).isSameAs(story);
+        assertThat(WorkItemProjection.ALL.restrict(story)).isSameAs(story);
+    }
+}
@@ -0,0 +1,128 @@
+package org.ms.mcp.workflows.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ms.mcp.config.AdoConfiguration;
+import org.ms.mcp.workflows.client.AdoParsingException;
+import org.ms.mcp.workflows.dto.ParsedWorkItems;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkItemStreamDecoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AdoConfiguration config;
+
+    @BeforeEach
+    void setUp() {
+        config = new AdoConfiguration();
+    }
+
+    private List<JsonNode> decode(String json, int chunkSize) {
+        WorkItemStreamDecoder decoder = new WorkItemStreamDecoder(objectMapper, config, new SimpleMeterRegistry());
+        return decoder.decodeArray(chunks(json, chunkSize), "value", new ParseClock()).collectList().block();
+    }
+
+    /**
+     * El cuerpo troceado en DataBuffer de chunkSize bytes, como llega de la red
+     */
+    private static Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int start = 0; start < bytes.length; start += chunkSize) {
+            int end = Math.min(bytes.length, start + chunkSize);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, start, end)));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private static String response(String description) throws Exception {
+        return "{\"count\":1,\"value\":[{\"id\":7,\"fields\":{\"System.Description\":"
+                + new ObjectMapper().writeValueAsString(description) + "}}]}";
+    }
+
+    @Test
+    void emitsEachArrayElementAcrossChunkBoundaries() {
+        String json = "{\"count\":2,\"value\":[{\"id\":1,\"fields\":{\"System.Title\":\"a\"}},"
+                + "{\"id\":2,\"fields\":{\"System.Title\":\"b\",\"nested\":[1,{\"x\":[]}]}}],\"other\":[{\"id\":3}]}";
+
+        List<JsonNode> items = decode(json, 7);
+
+        assertThat(items).extracting(item -> item.get("id").asLong()).containsExactly(1L, 2L);
+        assertThat(items.get(1).at("/fields/nested/1/x").isArray()).isTrue();
+    }
+
+    @Test
+    void streamedItemsParseLikeTheWholeResponse() throws Exception {
+        String json = """
+                {"count": 5, "value": [
+                  {"id": 1, "rev": 3, "fields": {"System.WorkItemType": "Epic", "System.TeamProject": "marcoLabs",
+                    "System.Title": "Pagos \\"v2\\" ñ", "System.State": "Active",
+                    "System.AssignedTo": {"displayName": "Ana García", "uniqueName": "ana@x"},
+                    "System.CreatedDate": "2024-03-15T10:20:30.123Z", "Microsoft.VSTS.Common.BusinessValue": 400,
+                    "Microsoft.VSTS.Scheduling.TargetDate": "2024-06-30T00:00:00Z"},
+                    "url": "https://dev.azure.com/org/_apis/wit/workItems/1"},
+                  {"id": 10, "fields": {"System.WorkItemType": "User Story", "System.Title": "Cobro",
+                    "System.Parent": 1, "Microsoft.VSTS.Scheduling.StoryPoints": 5, "System.Description": null,
+                    "System.Tags": "a; b", "System.History": [{"nested": {"deep": [1, 2, 3]}}]}},
+                  {"id": 11, "fields": {"System.WorkItemType": "Issue", "System.Title": "Devolución"}},
+                  {"id": 100, "fields": {"System.WorkItemType": "Task", "System.Parent": 10,
+                    "Microsoft.VSTS.Scheduling.RemainingWork": 2.5, "Microsoft.VSTS.Common.Activity": "Development"}},
+                  {"id": 200, "fields": {"System.WorkItemType": "Bug", "System.Title": "Ignorado"}}
+                ]}
+                """;
+        AdoResponseParser parser = new AdoResponseParser();
+        ParsedWorkItems expected = parser.parseWorkItems(objectMapper.readTree(json));
+
+        for (int chunkSize : new int[] {1, 16, 4096}) {
+            ParsedWorkItems streamed = ParsedWorkItems.builder().build();
+            decode(json, chunkSize).forEach(item -> streamed.add(parser.parseWorkItem(item)));
+
+            assertThat(streamed).as("chunks of %d bytes", chunkSize).isEqualTo(expected);
+        }
+        assertThat(expected.size()).isEqualTo(4);
+    }
+
+    @Test
+    void longValuesAreTruncatedWithAnExplicitMarker() throws Exception {
+        config.getApi().getMemory().setMaxFieldLength(10);
+
+        List<JsonNode> items = decode(response("0123456789abcdef"), 5);
+
+        assertThat(items.get(0).at("/fields/System.Description").asText())
+                .isEqualTo("0123456789" + WorkItemStreamDecoder.truncationMarker(10, 16));
+    }
+
+    @Test
+    void truncationDoesNotSplitASurrogatePair() throws Exception {
+        config.getApi().getMemory().setMaxFieldLength(10);
+        String emoji = "😀";
+
+        List<JsonNode> items = decode(response("012345678" + emoji + "tail"), 64);
+
+        assertThat(items.get(0).at("/fields/System.Description").asText())
+                .isEqualTo("012345678" + WorkItemStreamDecoder.truncationMarker(9, 15));
+    }
+
+    @Test
+    void valuesOverTheHardLimitFailTheResponse() throws Exception {
+        config.getApi().getMemory().setMaxFieldLength(10);
+        config.getApi().getMemory().setMaxStringLength(1_000);
+
+        assertThatThrownBy(() -> decode(response("x".repeat(5_000)), 256))
+                .isInstanceOf(AdoParsingException.class)
+                .hasMessageContaining("max-string-length");
+    }
+}